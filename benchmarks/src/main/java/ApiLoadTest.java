@@ -0,0 +1,127 @@
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ApiLoadTest {
+
+    /*
+    Local load test for ApiServer: starts it on a free port with a DatasetGenerator dataset, then
+    runs `clients` virtual threads for the given number of seconds, each sending requests
+    back to back over kept-alive connections (mostly searches, some booking requests).
+    Prints requests per second and latency percentiles as seen by the client.
+
+        java ApiLoadTest [clients=64] [seconds=10] [students=20000]
+     */
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int students = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        BookingService bookingService = new BookingService(system);
+        ListingService listingService = new ListingService(system);
+        GeneratedDataset dataset = new DatasetGenerator(42, LocalDate.now()).generate(system, students);
+        System.out.println(dataset);
+
+        try (ApiServer api = new ApiServer(system, new SearchService(system), bookingService, listingService,
+                new ReviewService(system, bookingService), new AdminService(system, bookingService),
+                new InetSocketAddress("127.0.0.1", 0))) {
+            api.start();
+            String base = "http://127.0.0.1:" + api.getPort();
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            // a short warm-up so the JIT has compiled the hot paths before timing starts
+            run(client, base, Math.min(clients, 8), 2_000_000_000L, dataset, new LatencyHistogram(), new LongAdder());
+            OperationMetrics server = system.getMetrics().operation("api.request");
+            long serverCallsBefore = server.getCalls();
+
+            LatencyHistogram latency = new LatencyHistogram();
+            LongAdder errors = new LongAdder();
+            long elapsed = run(client, base, clients, seconds * 1_000_000_000L, dataset, latency, errors);
+
+            System.out.printf("clients %d, %d s, %d rooms%n", clients, seconds, dataset.getRoomIds().length);
+            System.out.printf("requests %d (%d non-2xx/409), %.0f req/s%n",
+                    latency.getCount(), errors.sum(), latency.getCount() * 1e9 / elapsed);
+            System.out.printf("latency us: mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                    latency.getMeanNanos() / 1e3,
+                    latency.valueAtQuantile(0.50) / 1e3,
+                    latency.valueAtQuantile(0.90) / 1e3,
+                    latency.valueAtQuantile(0.99) / 1e3,
+                    latency.valueAtQuantile(0.999) / 1e3,
+                    latency.getMaxNanos() / 1e3);
+
+            // time spent inside the handler, so client and network overhead can be told apart (includes warm-up)
+            LatencyHistogram handler = server.getLatency();
+            System.out.printf("server handler us (%d calls): p50 %.1f, p99 %.1f%n",
+                    server.getCalls() - serverCallsBefore,
+                    handler.valueAtQuantile(0.50) / 1e3,
+                    handler.valueAtQuantile(0.99) / 1e3);
+        }
+    }
+
+    private static long run(HttpClient client, String base, int clients, long durationNanos,
+                            GeneratedDataset dataset, LatencyHistogram latency, LongAdder errors)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                threads.submit(() -> {
+                    SplittableRandom rnd = new SplittableRandom(seed);
+                    while (System.nanoTime() < end) {
+                        HttpRequest request = nextRequest(base, rnd, dataset);
+                        long t = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 300 && status != 409) errors.increment();    //409 is a genuine booking clash
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latency.record(System.nanoTime() - t);
+                    }
+                    return null;
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    // searches over the five largest cities and one-month stays in the spring after the anchor
+    private static HttpRequest nextRequest(String base, SplittableRandom rnd, GeneratedDataset dataset) {
+        LocalDate anchor = dataset.getAnchor();
+        LocalDate spring = LocalDate.of(anchor.getMonthValue() >= 9 ? anchor.getYear() + 1 : anchor.getYear(), 2, 1);
+
+        if (rnd.nextInt(10) < 8) {  //80% searches
+            String city = dataset.getCities().get(rnd.nextInt(5));
+            int min = 400 + rnd.nextInt(8) * 50;
+            String uri = base + "/rooms?city=" + city + "&min=" + min + "&max=" + (min + 150) +
+                    "&from=" + spring + "&to=" + spring.plusMonths(3);
+            return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        }
+
+        long[] students = dataset.getStudentIds();
+        long[] rooms = dataset.getRoomIds();
+        LocalDate from = spring.plusMonths(rnd.nextInt(5));
+        String body = "{\"roomId\":" + rooms[rnd.nextInt(rooms.length)] +
+                ",\"from\":\"" + from + "\",\"to\":\"" + from.plusMonths(1) + "\"}";
+        return HttpRequest.newBuilder(URI.create(base + "/bookings"))
+                .header("Content-Type", "application/json")
+                .header("X-User-Id", String.valueOf(students[rnd.nextInt(students.length)]))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
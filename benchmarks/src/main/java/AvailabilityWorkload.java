@@ -0,0 +1,80 @@
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+
+import bench.AvailabilityFixture;
+
+public class AvailabilityWorkload implements AvailabilityFixture {
+
+    /*
+    One room with `history` accepted stays spread evenly over its window, each followed by
+    two rejected requests for the same dates, as a busy room's list looks after years of
+    letting. The window ends two years from today and reaches back as far as the history
+    needs (four days per accepted stay), so large histories are mostly in the past.
+    Probed with short stays in the coming two years, where new requests land and the
+    calendar covers, so about half of the probes hit an accepted stay.
+     */
+
+    private static final int PROBES = 4096;     //power of two, cycled with a mask
+    private static final int AHEAD_DAYS = 730;  //probed part of the window, today onwards
+
+    private Room room;
+    private DateRange[] probes;
+    private int next;
+
+    @Override
+    public void setUp(int acceptedBookings) {
+        if (acceptedBookings <= 0) throw new IllegalArgumentException("Accepted bookings must be positive.");
+        LocalDate today = LocalDate.now();   //the calendar only covers today onwards
+        int days = Math.max(AHEAD_DAYS, acceptedBookings * 4);
+        int slot = days / acceptedBookings;
+        LocalDate from = today.plusDays(AHEAD_DAYS - days);
+        DateRange window = new DateRange(from, from.plusDays(days));
+
+        Homeowner owner = new Homeowner(1, "Owner", "owner@benchmark.example");
+        Property property = new Property(2, owner, "1 Benchmark Road", "Cardiff", "Benchmark property");
+        room = new Room(3, property, RoomType.SINGLE, 500, "Benchmark room", EnumSet.of(Amenity.WIFI), window);
+        property.addRoom(room);
+
+        Student student = new Student(4, "Student", "student@benchmark.example", "Cardiff University", "S1", true);
+        long id = 5;
+        for (int b = 0; b < acceptedBookings; b++) {
+            LocalDate start = from.plusDays((long) b * slot);
+            DateRange stay = new DateRange(start, start.plusDays(slot / 2));
+            for (int r = 0; r < 2; r++) {
+                Booking rejected = new Booking(id++, student, room, stay);
+                room.addBooking(rejected);
+                rejected.reject();
+            }
+            Booking accepted = new Booking(id++, student, room, stay);
+            room.addBooking(accepted);
+            accepted.accept();
+        }
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        probes = new DateRange[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            LocalDate start = today.plusDays(rnd.nextInt(AHEAD_DAYS - 7));
+            probes[i] = new DateRange(start, start.plusDays(1 + rnd.nextInt(7)));
+        }
+    }
+
+    @Override
+    public boolean isFreeFor() {
+        return room.isFreeFor(probes[next++ & (PROBES - 1)]);
+    }
+
+    @Override
+    public boolean isAvailableFor() {
+        return room.isAvailableFor(probes[next++ & (PROBES - 1)]);
+    }
+
+    @Override
+    public boolean scanBookings() {
+        DateRange probe = probes[next++ & (PROBES - 1)];
+        for (Booking b : room.getBookings()) {
+            if (b.getStatus() == BookingStatus.ACCEPTED && b.getPeriod().overlaps(probe)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+public class BenchmarkData {
+
+    /*
+    A generated dataset and the services over it, shared by the benchmark workloads.
+    Seed and anchor date are fixed, so every run and every fork measures the same data.
+     */
+
+    static final long SEED = 42;
+    static final LocalDate ANCHOR = LocalDate.of(2026, 10, 1);
+    static final LocalDate LET_UNTIL = LocalDate.of(2027, 9, 1);  //end of the generator's letting window for ANCHOR
+
+    final StudentRentalsSystem system = new StudentRentalsSystem();
+    final BookingService bookingService = new BookingService(system);
+    final SearchService searchService = new SearchService(system);
+    final GeneratedDataset dataset;
+
+    BenchmarkData(int students) {
+        dataset = new DatasetGenerator(SEED, ANCHOR).generate(system, students);
+    }
+
+    Room randomRoom(SplittableRandom rnd) {
+        long[] rooms = dataset.getRoomIds();
+        return system.getRoomById(rooms[rnd.nextInt(rooms.length)]);
+    }
+
+    Student randomStudent(SplittableRandom rnd) {
+        long[] students = dataset.getStudentIds();
+        return (Student) system.getUserById(students[rnd.nextInt(students.length)]);
+    }
+
+    Homeowner randomHomeowner(SplittableRandom rnd) {
+        long[] homeowners = dataset.getHomeownerIds();
+        return (Homeowner) system.getUserById(homeowners[rnd.nextInt(homeowners.length)]);
+    }
+
+    // an upcoming stay of minMonths to maxMonths (at most 9), starting after the anchor and ending inside the letting window
+    DateRange upcomingStay(SplittableRandom rnd, int minMonths, int maxMonths) {
+        LocalDate first = ANCHOR.withDayOfMonth(1).plusMonths(1);
+        int months = minMonths + rnd.nextInt(maxMonths - minMonths + 1);
+        int latestStart = (int) ChronoUnit.MONTHS.between(first, LET_UNTIL) - months - 1;
+        LocalDate start = first.plusMonths(rnd.nextInt(latestStart + 1)).plusDays(rnd.nextInt(28));
+        return new DateRange(start, start.plusMonths(months));
+    }
+}
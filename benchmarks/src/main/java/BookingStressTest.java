@@ -0,0 +1,145 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BookingStressTest {
+
+    /*
+    Double-booking stress check for the per-room locking: `threads` virtual threads spend
+    `seconds` requesting, accepting, rejecting and cancelling short stays on a handful of
+    hot rooms, all through BookingService. Afterwards every room must have no overlapping
+    ACCEPTED bookings, and its accepted index and day bitmap must agree with the booking
+    statuses. Prints the operation counts and exits with status 1 on any violation.
+
+        java BookingStressTest [threads=64] [seconds=10] [rooms=4]
+     */
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int roomCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        BookingService bookingService = new BookingService(system);
+
+        Homeowner owner = new Homeowner(system.generateId(), "Stress Owner", "owner@stress.example");
+        system.addUser(owner);
+        Property property = new Property(system.generateId(), owner, "1 Stress Street", "Leeds", "Hot rooms");
+        system.addProperty(property);
+
+        LocalDate from = LocalDate.now().plusDays(1);
+        DateRange window = new DateRange(from, from.plusDays(180));
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room(system.generateId(), property, RoomType.SINGLE, 500, "Hot room",
+                    EnumSet.of(Amenity.WIFI), window);
+            property.addRoom(room);
+            system.addRoom(room);
+            rooms.add(room);
+        }
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Student s = new Student(system.generateId(), "Student " + i, "s" + i + "@stress.example",
+                    "Leeds University", "S" + i, true);
+            system.addUser(s);
+            students.add(s);
+        }
+
+        LongAdder requested = new LongAdder();
+        LongAdder accepted = new LongAdder();
+        LongAdder refused = new LongAdder();    //conflicts and already-answered bookings, both expected here
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                Student student = students.get(t);
+                long seed = t;
+                pool.submit(() -> {
+                    SplittableRandom rnd = new SplittableRandom(seed);
+                    List<Booking> mine = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        Room room = rooms.get(rnd.nextInt(rooms.size()));
+                        LocalDate start = from.plusDays(rnd.nextInt(170));
+                        DateRange stay = new DateRange(start, start.plusDays(1 + rnd.nextInt(10)));
+                        try {
+                            mine.add(bookingService.requestBooking(student, room, stay));
+                            requested.increment();
+                        } catch (IllegalStateException e) {
+                            refused.increment();
+                        }
+                        if (mine.isEmpty()) continue;
+
+                        Booking target = mine.get(rnd.nextInt(mine.size()));
+                        try {
+                            switch (rnd.nextInt(10)) {
+                                case 0, 1 -> bookingService.rejectBooking(owner, target.getBookingId());
+                                case 2, 3, 4 -> bookingService.cancelBooking(student, target.getBookingId());  //frees accepted dates
+                                default -> {
+                                    bookingService.acceptBooking(owner, target.getBookingId());
+                                    accepted.increment();
+                                }
+                            }
+                        } catch (IllegalStateException e) {
+                            refused.increment();
+                        }
+                        if (mine.size() > 64) mine.remove(0);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Room room : rooms) {
+            String problem = checkRoom(room);
+            if (problem != null) violations.add(problem);
+        }
+
+        System.out.printf("threads %d, %d s, %d rooms: %d requested, %d accepted, %d refused%n",
+                threads, seconds, roomCount, requested.sum(), accepted.sum(), refused.sum());
+        if (violations.isEmpty()) {
+            System.out.println("OK: no overlapping accepted bookings, indexes consistent");
+            return;
+        }
+        violations.forEach(System.out::println);
+        System.exit(1);
+    }
+
+    /*
+    Null when the room is consistent, otherwise a description of the first problem found.
+    Call only while nothing is booking the room.
+     */
+    public static String checkRoom(Room room) {
+        List<Booking> acceptedBookings = new ArrayList<>();
+        for (Booking b : room.getBookings()) {
+            if (b.getStatus() == BookingStatus.ACCEPTED) acceptedBookings.add(b);
+        }
+        acceptedBookings.sort(Comparator.comparingLong(b -> b.getPeriod().getStartEpochDay()));
+
+        for (int i = 1; i < acceptedBookings.size(); i++) {
+            Booking previous = acceptedBookings.get(i - 1);
+            Booking current = acceptedBookings.get(i);
+            if (previous.getPeriod().overlaps(current.getPeriod())) {
+                return "Room " + room.getRoomId() + ": accepted bookings " + previous.getBookingId() + " "
+                        + previous.getPeriod() + " and " + current.getBookingId() + " " + current.getPeriod() + " overlap";
+            }
+        }
+        if (room.getAcceptedBookingCount() != acceptedBookings.size()) {
+            return "Room " + room.getRoomId() + ": accepted index holds " + room.getAcceptedBookingCount()
+                    + " bookings, " + acceptedBookings.size() + " are ACCEPTED";
+        }
+        for (Booking b : acceptedBookings) {
+            if (room.isFreeFor(b.getPeriod()) || room.isAvailableFor(b.getPeriod())) {
+                return "Room " + room.getRoomId() + ": accepted booking " + b.getBookingId() + " is not marked busy";
+            }
+        }
+        return null;
+    }
+}
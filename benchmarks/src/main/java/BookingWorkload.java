@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import bench.BookingFixture;
+
+public class BookingWorkload implements BookingFixture {
+
+    /*
+    Reads cycle through rooms, stays and users drawn once at setup. Writes work on a batch:
+    prepareRequests/prepareAccepts first take the previous batch back out of the room and
+    the system, then draw slots that are free of accepted bookings (and, for accepts, clear
+    of each other), so every timed call takes the success path.
+     */
+
+    private static final int DRAWS = 4096;      //power of two, cycled with a mask
+
+    private BenchmarkData data;
+    private BookingService bookingService;
+    private final SplittableRandom rnd = new SplittableRandom(BenchmarkData.SEED);
+
+    //reads
+    private Room[] rooms;
+    private DateRange[] stays;
+    private Student[] students;
+    private Homeowner[] homeowners;
+    private int next;
+
+    //writes
+    private Student[] requesters;
+    private Room[] requestRooms;
+    private DateRange[] requestStays;
+    private Booking[] batch = new Booking[0];   //created by the current batch, undone before the next
+    private int position;
+
+    @Override
+    public void setUp(int students) {
+        data = new BenchmarkData(students);
+        bookingService = data.bookingService;
+
+        rooms = new Room[DRAWS];
+        stays = new DateRange[DRAWS];
+        this.students = new Student[DRAWS];
+        homeowners = new Homeowner[DRAWS];
+        for (int i = 0; i < DRAWS; i++) {
+            rooms[i] = data.randomRoom(rnd);
+            stays[i] = data.upcomingStay(rnd, 1, 9);
+            this.students[i] = data.randomStudent(rnd);
+            homeowners[i] = data.randomHomeowner(rnd);
+        }
+    }
+
+    @Override
+    public boolean isRoomFree() {
+        int i = next++ & (DRAWS - 1);
+        return bookingService.isRoomFree(rooms[i], stays[i]);
+    }
+
+    @Override
+    public int getBookingsForStudent() {
+        return bookingService.getBookingsForStudent(students[next++ & (DRAWS - 1)]).size();
+    }
+
+    @Override
+    public int getBookingsForHomeowner() {
+        return bookingService.getBookingsForHomeowner(homeowners[next++ & (DRAWS - 1)]).size();
+    }
+
+    @Override
+    public void prepareRequests(int count) {
+        undoBatch();
+        draw(count, false);
+    }
+
+    @Override
+    public long requestBooking() {
+        int i = position++;
+        Booking booking = bookingService.requestBooking(requesters[i], requestRooms[i], requestStays[i]);
+        batch[i] = booking;
+        return booking.getBookingId();
+    }
+
+    @Override
+    public void prepareAccepts(int count) {
+        undoBatch();
+        draw(count, true);
+        for (int i = 0; i < count; i++) {
+            batch[i] = bookingService.requestBooking(requesters[i], requestRooms[i], requestStays[i]);
+        }
+    }
+
+    @Override
+    public void acceptBooking() {
+        Booking booking = batch[position++];
+        bookingService.acceptBooking(booking.getRoom().getProperty().getOwner(), booking.getBookingId());
+    }
+
+    private void draw(int count, boolean disjoint) {
+        requesters = new Student[count];
+        requestRooms = new Room[count];
+        requestStays = new DateRange[count];
+        batch = new Booking[count];
+        position = 0;
+
+        Map<Room, List<DateRange>> taken = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Room room;
+            DateRange stay;
+            do {
+                room = data.randomRoom(rnd);
+                stay = data.upcomingStay(rnd, 1, 4);
+            } while (!room.isFreeFor(stay) || (disjoint && overlapsAny(taken.get(room), stay)));
+
+            if (disjoint) taken.computeIfAbsent(room, r -> new ArrayList<>()).add(stay);
+            requesters[i] = data.randomStudent(rnd);
+            requestRooms[i] = room;
+            requestStays[i] = stay;
+        }
+    }
+
+    private static boolean overlapsAny(List<DateRange> periods, DateRange stay) {
+        if (periods == null) return false;
+        for (DateRange p : periods) {
+            if (p.overlaps(stay)) return true;
+        }
+        return false;
+    }
+
+    private void undoBatch() {
+        for (Booking booking : batch) {
+            if (booking == null) continue;
+            booking.cancel();   //releases the room's accepted index and calendar if it was accepted
+            booking.getRoom().removeBookings(List.of(booking));
+            data.system.removeBooking(booking);
+        }
+    }
+}
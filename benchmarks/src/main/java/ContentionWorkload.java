@@ -0,0 +1,98 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import bench.ContentionFixture;
+
+public class ContentionWorkload implements ContentionFixture {
+
+    /*
+    Many threads booking the same few rooms of a generated dataset, so every call queues on
+    the same room locks. Requests are short stays anywhere in the upcoming letting period.
+    The acceptor takes requests in arrival order; once a room holds more than
+    ACCEPTED_PER_ROOM accepted stays its oldest one is cancelled, so the room keeps turning
+    over instead of filling up. Between iterations the hot rooms are checked with
+    BookingStressTest.checkRoom and their bookings are cleared.
+     */
+
+    private static final int ACCEPTED_PER_ROOM = 8;
+
+    private BenchmarkData data;
+    private BookingService bookingService;
+    private Room[] rooms;
+    private Student[] students;
+    private final Queue<Booking> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Booking> accepted = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void setUp(int students, int hotRooms) {
+        data = new BenchmarkData(students);
+        bookingService = data.bookingService;
+
+        SplittableRandom rnd = new SplittableRandom(BenchmarkData.SEED);
+        rooms = new Room[hotRooms];
+        for (int i = 0; i < hotRooms; i++) rooms[i] = data.randomRoom(rnd);
+        this.students = new Student[256];
+        for (int i = 0; i < this.students.length; i++) this.students[i] = data.randomStudent(rnd);
+        clearHotRooms();
+    }
+
+    @Override
+    public long requestBooking() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Room room = rooms[rnd.nextInt(rooms.length)];
+        LocalDate start = BenchmarkData.ANCHOR.plusDays(31 + rnd.nextInt(280));
+        DateRange stay = new DateRange(start, start.plusDays(1 + rnd.nextInt(14)));
+        try {
+            Booking booking = bookingService.requestBooking(students[rnd.nextInt(students.length)], room, stay);
+            pending.add(booking);
+            return booking.getBookingId();
+        } catch (IllegalStateException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public boolean acceptBooking() {
+        Booking booking = pending.poll();
+        if (booking == null) return false;
+        try {
+            bookingService.acceptBooking(booking.getRoom().getProperty().getOwner(), booking.getBookingId());
+        } catch (IllegalStateException e) {
+            return false;
+        }
+        accepted.add(booking);
+        if (accepted.size() > ACCEPTED_PER_ROOM * rooms.length) {
+            Booking oldest = accepted.poll();
+            if (oldest != null) bookingService.cancelBooking(oldest.getStudent(), oldest.getBookingId());
+        }
+        return true;
+    }
+
+    @Override
+    public void verifyAndReset() {
+        for (Room room : rooms) {
+            String problem = BookingStressTest.checkRoom(room);
+            if (problem != null) throw new IllegalStateException(problem);
+        }
+        clearHotRooms();
+    }
+
+    // drops every booking on the hot rooms, the generated history included, so each iteration starts empty
+    private void clearHotRooms() {
+        pending.clear();
+        accepted.clear();
+        for (Room room : rooms) {
+            List<Booking> all = new ArrayList<>(room.getBookings());
+            for (Booking b : all) {
+                b.cancel();
+                data.system.removeBooking(b);
+            }
+            room.removeBookings(all);
+        }
+    }
+}
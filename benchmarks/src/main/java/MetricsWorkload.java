@@ -0,0 +1,22 @@
+import bench.MetricsFixture;
+
+public class MetricsWorkload implements MetricsFixture {
+
+    private OperationMetrics operation;
+
+    @Override
+    public void setUp() {
+        operation = new MetricsRegistry().operation("benchmark.op");
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public Object timedCall() {
+        String name = operation.getName();
+        return operation.timed(() -> name);     //a capturing lambda, as in the service wrappers
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import bench.PipelineFixture;
+
+public class PipelineWorkload implements PipelineFixture {
+
+    /*
+    Booking requests on random rooms of a generated dataset, made directly or through the
+    pipeline. Requests are drawn clear of the dataset's accepted stays and never get accepted themselves, so every call succeeds; the
+    bookings they create are taken out again between iterations.
+     */
+
+    private static final int DRAWS = 4096;      //power of two
+
+    private BenchmarkData data;
+    private BookingService bookingService;
+    private BookingRequestPipeline pipeline;
+    private Room[] rooms;
+    private Student[] students;
+    private DateRange[] stays;
+    private final Queue<Booking> created = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void setUp(int students, int capacity) {
+        data = new BenchmarkData(students);
+        bookingService = data.bookingService;
+        pipeline = new BookingRequestPipeline(bookingService, capacity);
+
+        SplittableRandom rnd = new SplittableRandom(BenchmarkData.SEED);
+        rooms = new Room[DRAWS];
+        this.students = new Student[DRAWS];
+        stays = new DateRange[DRAWS];
+        for (int i = 0; i < DRAWS; i++) {
+            do {
+                rooms[i] = data.randomRoom(rnd);
+                stays[i] = data.upcomingStay(rnd, 1, 4);
+            } while (!rooms[i].isFreeFor(stays[i]));    //the generated history already holds accepted stays
+            this.students[i] = data.randomStudent(rnd);
+        }
+    }
+
+    @Override
+    public long direct() {
+        int i = ThreadLocalRandom.current().nextInt(DRAWS);
+        Booking booking = bookingService.requestBooking(students[i], rooms[i], stays[i]);
+        created.add(booking);
+        return booking.getBookingId();
+    }
+
+    @Override
+    public long pipelined() {
+        int i = ThreadLocalRandom.current().nextInt(DRAWS);
+        try {
+            Booking booking = pipeline.submit(students[i], rooms[i], stays[i]).join();
+            created.add(booking);
+            return booking.getBookingId();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void reset() {
+        Map<Room, List<Booking>> byRoom = new HashMap<>();
+        Booking booking;
+        while ((booking = created.poll()) != null) {
+            byRoom.computeIfAbsent(booking.getRoom(), r -> new ArrayList<>()).add(booking);
+            data.system.removeBooking(booking);
+        }
+        byRoom.forEach(Room::removeBookings);   //one pass over each room's list
+    }
+
+    @Override
+    public void close() {
+        pipeline.close();
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.SplittableRandom;
+
+import bench.SearchFixture;
+
+public class SearchWorkload implements SearchFixture {
+
+    /*
+    Queries are modelled on a randomly picked room, so cities come up in proportion to their
+    room count and rent bands sit where the rents are. Mixes are described on SearchBenchmark.
+     */
+
+    private static final int QUERIES = 1024;    //power of two, cycled with a mask
+
+    private SearchService searchService;
+    private SearchCriteria[] queries;
+    private int next;
+
+    @Override
+    public void setUp(int students, String mix) {
+        BenchmarkData data = new BenchmarkData(students);
+        searchService = data.searchService;
+
+        SplittableRandom rnd = new SplittableRandom(BenchmarkData.SEED);
+        queries = new SearchCriteria[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            Room room = data.randomRoom(rnd);
+            String city = room.getProperty().getCityOrArea();
+            int min = Math.max(0, (room.getMonthlyRent() - 75) / 25 * 25);
+            DateRange stay = data.upcomingStay(rnd, 1, 4);
+
+            queries[i] = switch (mix) {
+                case "city" -> new SearchCriteria(city, null, null, null, null);
+                case "city-price" -> new SearchCriteria(city, min, min + 150, null, null);
+                case "city-price-dates" -> new SearchCriteria(city, min, min + 150, stay, null);
+                case "all" -> new SearchCriteria(city, min, min + 150, stay, room.getType());
+                case "type" -> new SearchCriteria(null, null, null, null, room.getType());
+                case "none" -> new SearchCriteria(null, null, null, null, null);
+                default -> throw new IllegalArgumentException("Unknown search mix: " + mix);
+            };
+        }
+    }
+
+    @Override
+    public int searchRooms() {
+        return searchService.searchRooms(queries[next++ & (QUERIES - 1)]).size();
+    }
+}
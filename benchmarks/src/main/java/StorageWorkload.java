@@ -0,0 +1,132 @@
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+
+import bench.StorageFixture;
+
+public class StorageWorkload implements StorageFixture {
+
+    /*
+    Lookups cycle through IDs and emails drawn once at setup. Updates put back the value
+    a room or user already has, so the indexes do the full remove-and-insert without the
+    data drifting between iterations.
+     */
+
+    private static final int DRAWS = 4096;      //power of two, cycled with a mask
+
+    private BenchmarkData data;
+    private StudentRentalsSystem system;
+    private final SplittableRandom rnd = new SplittableRandom(BenchmarkData.SEED);
+
+    private long[] userIds;
+    private String[] emails;
+    private long[] roomIds;
+    private long[] bookingIds;
+    private Room[] rooms;
+    private User[] users;
+    private Property[] properties;
+    private Homeowner[] owners;
+    private int next;
+
+    private User[] newUsers = new User[0];
+    private int position;
+    private int addedUsers;
+
+    @Override
+    public void setUp(int students) {
+        data = new BenchmarkData(students);
+        system = data.system;
+
+        long[] allUsers = data.dataset.getStudentIds();
+        long[] allRooms = data.dataset.getRoomIds();
+        long[] allProperties = data.dataset.getPropertyIds();
+        Object[] allBookings = system.getAllBookings().toArray();
+
+        userIds = new long[DRAWS];
+        emails = new String[DRAWS];
+        roomIds = new long[DRAWS];
+        bookingIds = new long[DRAWS];
+        rooms = new Room[DRAWS];
+        users = new User[DRAWS];
+        properties = new Property[DRAWS];
+        owners = new Homeowner[DRAWS];
+        for (int i = 0; i < DRAWS; i++) {
+            userIds[i] = allUsers[rnd.nextInt(allUsers.length)];
+            users[i] = system.getUserById(userIds[i]);
+            emails[i] = users[i].getEmail();
+            roomIds[i] = allRooms[rnd.nextInt(allRooms.length)];
+            rooms[i] = system.getRoomById(roomIds[i]);
+            bookingIds[i] = ((Booking) allBookings[rnd.nextInt(allBookings.length)]).getBookingId();
+            properties[i] = system.getPropertyById(allProperties[rnd.nextInt(allProperties.length)]);
+            owners[i] = data.randomHomeowner(rnd);
+        }
+    }
+
+    @Override
+    public Object getUserById() {
+        return system.getUserById(userIds[next++ & (DRAWS - 1)]);
+    }
+
+    @Override
+    public Object getUserByEmail() {
+        return system.getUserByEmail(emails[next++ & (DRAWS - 1)]);
+    }
+
+    @Override
+    public Object getRoomById() {
+        return system.getRoomById(roomIds[next++ & (DRAWS - 1)]);
+    }
+
+    @Override
+    public Object getBookingById() {
+        return system.getBookingById(bookingIds[next++ & (DRAWS - 1)]);
+    }
+
+    @Override
+    public long addAndRemoveProperty() {
+        int i = next++ & (DRAWS - 1);
+        Room model = rooms[i];
+        Property property = new Property(system.generateId(), owners[i], "1 Benchmark Road",
+                model.getProperty().getCityOrArea(), "Benchmark property");
+        system.addProperty(property);
+        for (int r = 0; r < 3; r++) {
+            Room room = new Room(system.generateId(), property, model.getType(), model.getMonthlyRent(),
+                    "Benchmark room", EnumSet.of(Amenity.WIFI), model.getAvailability());
+            property.addRoom(room);
+            system.addRoom(room);
+        }
+        system.removeProperty(property);
+        return property.getPropertyId();
+    }
+
+    @Override
+    public void updateRoomRent() {
+        Room room = rooms[next++ & (DRAWS - 1)];
+        system.updateRoomRent(room, room.getMonthlyRent());
+    }
+
+    @Override
+    public void reindexUser() {
+        system.reindexUser(users[next++ & (DRAWS - 1)]);
+    }
+
+    @Override
+    public void reindexProperty() {
+        system.reindexProperty(properties[next++ & (DRAWS - 1)]);
+    }
+
+    @Override
+    public void prepareUsers(int count) {
+        newUsers = new User[count];
+        for (int i = 0; i < count; i++) {
+            int n = addedUsers++;
+            newUsers[i] = new Student(system.generateId(), "Bench Student " + n, "bench" + n + "@students.example.ac.uk",
+                    "Benchmark University", "B" + n, true);
+        }
+        position = 0;
+    }
+
+    @Override
+    public void addUser() {
+        system.addUser(newUsers[position++]);
+    }
+}
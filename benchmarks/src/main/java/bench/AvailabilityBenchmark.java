@@ -0,0 +1,56 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+The three ways to ask whether a room is free, on rooms with long booking histories:
+the accepted-booking index, the day bitmap and the old linear scan over every booking.
+Each room carries `history` accepted bookings plus twice as many rejected ones, so the
+largest setting is a room with over 24,000 bookings in its list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({"8", "64", "256", "2048", "8192"})
+    public int history;
+
+    private AvailabilityFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("AvailabilityWorkload", AvailabilityFixture.class);
+        fixture.setUp(history);
+    }
+
+    @Benchmark
+    public boolean isFreeFor() {
+        return fixture.isFreeFor();
+    }
+
+    @Benchmark
+    public boolean isAvailableFor() {
+        return fixture.isAvailableFor();
+    }
+
+    @Benchmark
+    public boolean scanBookings() {
+        return fixture.scanBookings();
+    }
+}
@@ -0,0 +1,12 @@
+package bench;
+
+public interface AvailabilityFixture {
+
+    void setUp(int acceptedBookings);
+
+    boolean isFreeFor();        //accepted-booking interval index
+
+    boolean isAvailableFor();   //day bitmap
+
+    boolean scanBookings();     //linear pass over the room's bookings, as before the index
+}
@@ -0,0 +1,22 @@
+package bench;
+
+public interface BookingFixture {
+
+    void setUp(int students);
+
+    //reads, steady state
+    boolean isRoomFree();
+
+    int getBookingsForStudent();
+
+    int getBookingsForHomeowner();
+
+    //writes, run in batches; prepare* is untimed and first undoes the previous batch
+    void prepareRequests(int count);
+
+    long requestBooking();
+
+    void prepareAccepts(int count);
+
+    void acceptBooking();
+}
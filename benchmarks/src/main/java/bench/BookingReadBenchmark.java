@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+Booking reads over a generated dataset: the availability check used by request and accept,
+and the student and homeowner booking lists. Rooms, periods and users are drawn up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BookingReadBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private BookingFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("BookingWorkload", BookingFixture.class);
+        fixture.setUp(students);
+    }
+
+    @Benchmark
+    public boolean isRoomFree() {
+        return fixture.isRoomFree();
+    }
+
+    @Benchmark
+    public int getBookingsForStudent() {
+        return fixture.getBookingsForStudent();
+    }
+
+    @Benchmark
+    public int getBookingsForHomeowner() {
+        return fixture.getBookingsForHomeowner();
+    }
+}
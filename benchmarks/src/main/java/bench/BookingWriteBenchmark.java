@@ -0,0 +1,70 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+requestBooking and acceptBooking change state, so they are timed in batches of BATCH calls:
+before each iteration the previous batch is undone and fresh free slots (and, for accept,
+pending requests) are drawn, outside the timing. Scores are per batch, divide by BATCH
+for a single call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = BookingWriteBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = BookingWriteBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BookingWriteBenchmark {
+
+    static final int BATCH = 500;   //fits the room count of the smallest dataset
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private BookingFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("BookingWorkload", BookingFixture.class);
+        fixture.setUp(students);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+        @Setup(Level.Iteration)
+        public void prepare(BookingWriteBenchmark benchmark) {
+            benchmark.fixture.prepareRequests(BATCH);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Accepts {
+        @Setup(Level.Iteration)
+        public void prepare(BookingWriteBenchmark benchmark) {
+            benchmark.fixture.prepareAccepts(BATCH);
+        }
+    }
+
+    @Benchmark
+    public long requestBooking(Requests batch) {
+        return fixture.requestBooking();
+    }
+
+    @Benchmark
+    public void acceptBooking(Accepts batch) {
+        fixture.acceptBooking();
+    }
+}
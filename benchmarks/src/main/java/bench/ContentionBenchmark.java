@@ -0,0 +1,72 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+Booking throughput under contention for the per-room locks: four threads requesting on
+one or four hot rooms, and the same with three requesters and one acceptor working at
+once. After every iteration the hot rooms are checked for overlapping accepted bookings
+and the iteration fails if any are found. On a single core the threads take turns rather
+than truly colliding, so run this on a multi-core machine for contention numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ContentionBenchmark {
+
+    @Param({"1", "4"})
+    public int hotRooms;
+
+    private ContentionFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("ContentionWorkload", ContentionFixture.class);
+        fixture.setUp(1000, hotRooms);
+    }
+
+    @TearDown(Level.Iteration)
+    public void verifyAndReset() {
+        fixture.verifyAndReset();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long requestOnly() {
+        return fixture.requestBooking();
+    }
+
+    @Benchmark
+    @Group("requestAccept")
+    @GroupThreads(3)
+    public long request() {
+        return fixture.requestBooking();
+    }
+
+    @Benchmark
+    @Group("requestAccept")
+    @GroupThreads(1)
+    public boolean accept() {
+        return fixture.acceptBooking();
+    }
+}
@@ -0,0 +1,12 @@
+package bench;
+
+public interface ContentionFixture {
+
+    void setUp(int students, int hotRooms);
+
+    long requestBooking();      //-1 when refused because the dates are taken
+
+    boolean acceptBooking();    //false when nothing was pending or the accept lost to an overlap
+
+    void verifyAndReset();      //throws if any hot room has overlapping accepted bookings
+}
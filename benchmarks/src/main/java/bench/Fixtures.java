@@ -0,0 +1,24 @@
+package bench;
+
+public final class Fixtures {
+
+    /*
+    JMH refuses benchmark classes in the default package, and a named package cannot import
+    the application's default-package classes. So each benchmark here drives a workload class
+    from the default package (next to this package) through one of the *Fixture interfaces,
+    and the workload is loaded by name. Every call site only ever sees one implementation,
+    so the JIT inlines through the interface and the indirection costs nothing measurable.
+     */
+
+    private Fixtures() {
+    }
+
+    public static <T> T load(String className, Class<T> type) {
+        try {
+            Object workload = Class.forName(className).getDeclaredConstructor().newInstance();
+            return type.cast(workload);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load benchmark workload " + className + ".", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+What the per-operation timing in the services costs: the clock read on its own, and a
+full timed call through OperationMetrics.timed, as the service wrappers make it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private MetricsFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("MetricsWorkload", MetricsFixture.class);
+        fixture.setUp();
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return fixture.nanoTime();
+    }
+
+    @Benchmark
+    public Object timedCall() {
+        return fixture.timedCall();
+    }
+}
@@ -0,0 +1,10 @@
+package bench;
+
+public interface MetricsFixture {
+
+    void setUp();
+
+    long nanoTime();    //the clock read alone, for reference
+
+    Object timedCall(); //OperationMetrics.timed around a trivial call
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+Booking request latency from 16 callers, made directly and through BookingRequestPipeline
+(capacity 64, so callers also queue for a place). Sample mode reports the distribution,
+p50 to p99.99, and the sample count over the measured seconds gives requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PipelineBenchmark {
+
+    private PipelineFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("PipelineWorkload", PipelineFixture.class);
+        fixture.setUp(10_000, 64);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reset() {
+        fixture.reset();
+    }
+
+    @TearDown
+    public void close() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public long direct() {
+        return fixture.direct();
+    }
+
+    @Benchmark
+    public long pipelined() {
+        return fixture.pipelined();
+    }
+}
@@ -0,0 +1,14 @@
+package bench;
+
+public interface PipelineFixture {
+
+    void setUp(int students, int capacity);
+
+    long direct();      //BookingService.requestBooking on the calling thread
+
+    long pipelined();   //submitted to the BookingRequestPipeline and waited for
+
+    void reset();       //removes the bookings made so far
+
+    void close();
+}
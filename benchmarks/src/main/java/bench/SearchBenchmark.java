@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+SearchService.searchRooms over a generated dataset. Each mix is a fixed cycle of 1024
+queries drawn from the dataset's cities, rents and letting dates:
+
+    city              city only
+    city-price        city and a 150-wide rent band
+    city-price-dates  city, rent band and a stay of one to four months
+    all               city, room type, rent band and stay
+    type              room type only, so every listed room of that type is a candidate
+    none              no criteria, every listed room
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    @Param({"city", "city-price", "city-price-dates", "all", "type", "none"})
+    public String mix;
+
+    private SearchFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("SearchWorkload", SearchFixture.class);
+        fixture.setUp(students, mix);
+    }
+
+    @Benchmark
+    public int searchRooms() {
+        return fixture.searchRooms();
+    }
+}
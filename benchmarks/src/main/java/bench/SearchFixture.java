@@ -0,0 +1,8 @@
+package bench;
+
+public interface SearchFixture {
+
+    void setUp(int students, String mix);
+
+    int searchRooms();  //runs the next query of the mix, returns the number of matches
+}
@@ -0,0 +1,79 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+StudentRentalsSystem lookups and the index upkeep behind add, remove and update: the
+city/type/rent room indexes, the rating leaderboards and the paged admin listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StorageBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private StorageFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("StorageWorkload", StorageFixture.class);
+        fixture.setUp(students);
+    }
+
+    @Benchmark
+    public Object getUserById() {
+        return fixture.getUserById();
+    }
+
+    @Benchmark
+    public Object getUserByEmail() {
+        return fixture.getUserByEmail();
+    }
+
+    @Benchmark
+    public Object getRoomById() {
+        return fixture.getRoomById();
+    }
+
+    @Benchmark
+    public Object getBookingById() {
+        return fixture.getBookingById();
+    }
+
+    @Benchmark
+    public long addAndRemoveProperty() {
+        return fixture.addAndRemoveProperty();
+    }
+
+    @Benchmark
+    public void updateRoomRent() {
+        fixture.updateRoomRent();
+    }
+
+    @Benchmark
+    public void reindexUser() {
+        fixture.reindexUser();
+    }
+
+    @Benchmark
+    public void reindexProperty() {
+        fixture.reindexProperty();
+    }
+}
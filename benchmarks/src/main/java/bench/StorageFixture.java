@@ -0,0 +1,29 @@
+package bench;
+
+public interface StorageFixture {
+
+    void setUp(int students);
+
+    //lookups
+    Object getUserById();
+
+    Object getUserByEmail();
+
+    Object getRoomById();
+
+    Object getBookingById();
+
+    //index maintenance
+    long addAndRemoveProperty();    //a property with three rooms, added and removed again
+
+    void updateRoomRent();
+
+    void reindexUser();
+
+    void reindexProperty();
+
+    //users cannot be removed, so adding them is run in batches
+    void prepareUsers(int count);
+
+    void addUser();
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+addUser, timed in batches of BATCH calls because users cannot be removed again. The users
+are built before each iteration; the system grows by one batch per iteration, which is
+small next to even the smallest dataset's user count. Scores are per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = StorageWriteBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = StorageWriteBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StorageWriteBenchmark {
+
+    static final int BATCH = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private StorageFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.load("StorageWorkload", StorageFixture.class);
+        fixture.setUp(students);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareUsers() {
+        fixture.prepareUsers(BATCH);
+    }
+
+    @Benchmark
+    public void addUser() {
+        fixture.addUser();
+    }
+}
@@ -0,0 +1,54 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class AcceptedBookingIndex {
+
+    /*
+    Interval index of a room's ACCEPTED bookings, keyed by start epoch day.
+    Accepted periods never overlap each other, so the booking with the latest start
+    before a period's end is the only one that can tell whether the period is free.
+    Rejected/cancelled history is never stored here, so checks stay O(log n)
+    however long the room has been listed.
+     */
+
+    private final NavigableMap<Long, Booking> byStartDay = new TreeMap<>();
+
+    public boolean isFree(DateRange period) {
+        Map.Entry<Long, Booking> latest = byStartDay.lowerEntry(period.getEndEpochDay());
+        return latest == null || latest.getValue().getPeriod().getEndEpochDay() <= period.getStartEpochDay();
+    }
+
+    public List<Booking> conflicts(DateRange period) {  //every accepted booking overlapping the period, in date order
+        List<Booking> results = new ArrayList<>();
+
+        Long from = byStartDay.floorKey(period.getStartEpochDay());  //may start before the period and run into it
+        if (from == null) from = period.getStartEpochDay();
+
+        for (Booking b : byStartDay.subMap(from, true, period.getEndEpochDay(), false).values()) {
+            if (b.getPeriod().getEndEpochDay() > period.getStartEpochDay()) results.add(b);
+        }
+        return results;
+    }
+
+    public void add(Booking booking) {
+        if (!isFree(booking.getPeriod())) {
+            throw new IllegalStateException("Booking " + booking.getBookingId() + " overlaps an accepted booking.");
+        }
+        byStartDay.put(booking.getPeriod().getStartEpochDay(), booking);
+    }
+
+    public void remove(Booking booking) {
+        byStartDay.remove(booking.getPeriod().getStartEpochDay(), booking);
+    }
+
+    public Iterable<Booking> inDateOrder() {
+        return byStartDay.values();
+    }
+
+    public int size() {
+        return byStartDay.size();
+    }
+}
@@ -1,12 +1,25 @@
+import java.util.Collection;
 import java.util.List;
 
 public class AdminService {
 
     private final StudentRentalsSystem system; // initialise the system
+    private final BookingService bookingService;    // optional, suspends and resumes pending bookings
+    private final StandingSearchService standingSearches;   // optional, told when rooms are listed again
 
     public AdminService(StudentRentalsSystem system) {
+        this(system, null);
+    }
+
+    public AdminService(StudentRentalsSystem system, BookingService bookingService) {
+        this(system, bookingService, null);
+    }
+
+    public AdminService(StudentRentalsSystem system, BookingService bookingService, StandingSearchService standingSearches) {
         if (system == null) throw new IllegalArgumentException("System must not be null.");
         this.system = system;
+        this.bookingService = bookingService;
+        this.standingSearches = standingSearches;
     }
 
     public List<User> listUsers() { // lists all users in the system
@@ -17,6 +30,18 @@ public class AdminService {
         return system.getAllProperties();
     }
 
+    public ResultPage<User> queryUsers(Admin admin, Class<? extends User> role, AccountStatus status,
+                                       UserSort sort, String cursor, int limit) {   // one page of users, null filters match any
+        if (admin == null) throw new IllegalArgumentException("Admin must not be null.");
+        return system.queryUsers(role, status, sort, cursor, limit);
+    }
+
+    public ResultPage<Property> queryProperties(Admin admin, String cityOrArea, Long ownerId,
+                                                PropertySort sort, String cursor, int limit) {  // one page of properties
+        if (admin == null) throw new IllegalArgumentException("Admin must not be null.");
+        return system.queryProperties(cityOrArea, ownerId, sort, cursor, limit);
+    }
+
     public void deactivateUser(Admin admin, long userId) {  // deactivates a user account
         if (admin == null) throw new IllegalArgumentException("Admin must not be null.");
 
@@ -24,6 +49,32 @@ public class AdminService {
         if (user == null) throw new IllegalArgumentException("User not found: " + userId);
 
         user.deactivate();  // set user status to DEACTIVATED through User class method
+        system.reindexUser(user);
+        system.audit(AuditEntry.allowed(admin, AuditAction.USER_DEACTIVATE, userId, user.getEmail()));
+
+        // cascade: a homeowner's rooms leave search, pending requests involving the user go on hold
+        if (user instanceof Homeowner) system.hideRoomsOf((Homeowner) user);
+        if (bookingService != null) bookingService.suspendPendingBookings(user);
+    }
+
+    public void reactivateUser(Admin admin, long userId) {  // restores an account and what deactivation hid
+        if (admin == null) throw new IllegalArgumentException("Admin must not be null.");
+
+        User user = system.getUserById(userId);
+        if (user == null) throw new IllegalArgumentException("User not found: " + userId);
+        if (user.isActive()) return;
+
+        user.reactivate();
+        system.reindexUser(user);
+        system.audit(AuditEntry.allowed(admin, AuditAction.USER_REACTIVATE, userId, user.getEmail()));
+
+        if (user instanceof Homeowner) {
+            List<Room> shown = system.showRoomsOf((Homeowner) user);
+            if (standingSearches != null) {
+                for (Room room : shown) standingSearches.roomAdded(room);   // back in search, may match saved searches
+            }
+        }
+        if (bookingService != null) bookingService.resumeSuspendedBookings(user);
     }
 
     public void removeProperty(Admin admin, long propertyId) {  // removes a property from the system
@@ -33,5 +84,25 @@ public class AdminService {
         if (property == null) throw new IllegalArgumentException("Property not found: " + propertyId);
 
         system.removeProperty(property);    // remove property using system method also removing associated rooms
+        system.audit(AuditEntry.allowed(admin, AuditAction.PROPERTY_REMOVE, propertyId,
+                "by admin, owner " + property.getOwner().getUserId()));
+
+        for (Room room : property.getRooms()) {
+            system.getEventBus().publish(ListingEvent.forRoom(DomainEventType.ROOM_REMOVED, room));
+        }
+        system.getEventBus().publish(ListingEvent.forProperty(DomainEventType.PROPERTY_REMOVED, property, property.getCityOrArea()));
+    }
+
+    // repair pass over the stored reviews: any booking with more than one is reported, nothing is removed
+    public DuplicateReviewReport findDuplicateReviews(Admin admin) {
+        if (admin == null) throw new IllegalArgumentException("Admin must not be null.");
+        return DuplicateReviewReport.scan(system.getAllReviews(), system);
+    }
+
+    // reports bookings reviewed more than once in a batch meant for loadReviews, or already reviewed in the system
+    public DuplicateReviewReport findDuplicateReviews(Admin admin, Collection<Review> batch) {
+        if (admin == null) throw new IllegalArgumentException("Admin must not be null.");
+        if (batch == null) throw new IllegalArgumentException("Reviews must not be null.");
+        return DuplicateReviewReport.scan(batch, system);
     }
-}
\ No newline at end of file
+}
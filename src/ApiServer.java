@@ -0,0 +1,720 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+public class ApiServer implements AutoCloseable {
+
+    /*
+    HTTP/JSON front end over the services, on the JDK's built-in server. Every request runs
+    on its own virtual thread, so a slow client only holds a cheap thread. Connections are
+    kept alive between requests (HTTP/1.1). List results are encoded as they are written,
+    in chunks, instead of being built up as one string first.
+
+    The acting user is named by the X-User-Id header and trusted as is, the same way the
+    CLI trusts the chosen menu. Request fields come from the query string and from a
+    form-encoded or flat JSON object body.
+
+        GET    /rooms?city=&min=&max=&type=&from=&to=           search
+        GET    /bookings                                          the caller's bookings
+        POST   /bookings  roomId, from, to (Idempotency-Key)      request a booking
+        POST   /bookings/{id}/accept | reject | cancel
+        POST   /properties  address, city, description
+        PATCH  /properties/{id}  address, city, description
+        DELETE /properties/{id}
+        POST   /properties/{id}/rooms  type, rent, description, amenities, from, to
+        PATCH  /rooms/{id}  rent, description
+        DELETE /rooms/{id}
+        GET    /properties/top?city=&n=
+        GET    /properties/{id}/reviews?cursor=&limit=&min=&max=
+        POST   /reviews  bookingId, rating, comment
+        GET    /admin/users?role=&status=&sort=&cursor=&limit=
+        GET    /admin/properties?city=&owner=&sort=&cursor=&limit=
+        POST   /admin/users/{id}/deactivate | reactivate
+        DELETE /admin/properties/{id}
+        GET    /admin/metrics
+
+    Listing and account changes update plain maps that searches read, so they take the
+    write side of a read-write lock; everything else, bookings included (which have their
+    own per-room locks), shares the read side.
+
+    Booking requests go through a BookingRequestPipeline, so at most BOOKING_CAPACITY run
+    at once during a burst; a request that cannot get a place within BOOKING_WAIT_MILLIS
+    is answered 503. Request bodies over MAX_BODY_BYTES are answered 413 without being read.
+     */
+
+    static {
+        // chunked responses end in a separate small write; with Nagle on, it waits for the
+        // client's delayed ACK and every kept-alive request stalls about 40ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static final int BOOKING_CAPACITY = 256;
+    private static final long BOOKING_WAIT_MILLIS = 2000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;    //form and JSON bodies here are a few hundred bytes
+
+    private final StudentRentalsSystem system;
+    private final SearchService searchService;
+    private final BookingService bookingService;
+    private final ListingService listingService;
+    private final ReviewService reviewService;
+    private final AdminService adminService;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReadWriteLock listingLock = new ReentrantReadWriteLock();
+    private final BookingRequestPipeline bookingPipeline;
+    private final OperationMetrics requests;
+
+    public ApiServer(StudentRentalsSystem system, SearchService searchService, BookingService bookingService,
+                     ListingService listingService, ReviewService reviewService, AdminService adminService,
+                     InetSocketAddress address) throws IOException {
+        if (system == null || searchService == null || bookingService == null || listingService == null
+                || reviewService == null || adminService == null) {
+            throw new IllegalArgumentException("System and services must not be null.");
+        }
+        if (address == null) throw new IllegalArgumentException("Address must not be null.");
+        this.system = system;
+        this.searchService = searchService;
+        this.bookingService = bookingService;
+        this.listingService = listingService;
+        this.reviewService = reviewService;
+        this.adminService = adminService;
+        this.bookingPipeline = new BookingRequestPipeline(bookingService, BOOKING_CAPACITY);
+        this.requests = system.getMetrics().operation("api.request");
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {  //the bound port, useful when started on port 0
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        bookingPipeline.close();
+        executor.shutdown();
+    }
+
+    //dispatch
+
+    private void handle(HttpExchange ex) {
+        long start = System.nanoTime();
+        try {
+            String method = ex.getRequestMethod();
+            String[] path = segments(ex.getRequestURI().getPath());
+            Map<String, String> params = params(ex);
+            route(ex, method, path, params);
+        } catch (ApiException e) {
+            requests.failed();
+            sendError(ex, e.status, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            requests.failed();
+            sendError(ex, 400, e.getMessage());
+        } catch (SecurityException e) {
+            requests.failed();
+            sendError(ex, 403, e.getMessage());
+        } catch (IllegalStateException e) {
+            requests.failed();
+            sendError(ex, 409, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            requests.failed();
+            sendError(ex, 500, "Internal error.");
+        } finally {
+            ex.close();
+            requests.record(start);
+        }
+    }
+
+    private void route(HttpExchange ex, String method, String[] p, Map<String, String> q) throws IOException {
+        String root = p.length == 0 ? "" : p[0];
+        switch (root) {
+            case "rooms" -> {
+                if (p.length == 1 && method.equals("GET")) searchRooms(ex, q);
+                else if (p.length == 2 && method.equals("PATCH")) write(() -> updateRoom(ex, id(p[1]), q));
+                else if (p.length == 2 && method.equals("DELETE")) write(() -> {
+                    listingService.removeRoom(actor(ex, Homeowner.class), id(p[1]));
+                    sendOk(ex);
+                });
+                else throw notFound();
+            }
+            case "bookings" -> {
+                if (p.length == 1 && method.equals("GET")) read(() -> listBookings(ex));
+                else if (p.length == 1 && method.equals("POST")) read(() -> requestBooking(ex, q));
+                else if (p.length == 3 && method.equals("POST")) read(() -> answerBooking(ex, id(p[1]), p[2]));
+                else throw notFound();
+            }
+            case "properties" -> {
+                if (p.length == 1 && method.equals("POST")) write(() -> addProperty(ex, q));
+                else if (p.length == 2 && p[1].equals("top") && method.equals("GET")) read(() -> topRated(ex, q));
+                else if (p.length == 2 && method.equals("PATCH")) write(() -> {
+                    listingService.updateProperty(actor(ex, Homeowner.class), id(p[1]), q.get("address"), q.get("city"), q.get("description"));
+                    sendOk(ex);
+                });
+                else if (p.length == 2 && method.equals("DELETE")) write(() -> {
+                    listingService.removeProperty(actor(ex, Homeowner.class), id(p[1]));
+                    sendOk(ex);
+                });
+                else if (p.length == 3 && p[2].equals("rooms") && method.equals("POST")) write(() -> addRoom(ex, id(p[1]), q));
+                else if (p.length == 3 && p[2].equals("reviews") && method.equals("GET")) read(() -> listReviews(ex, id(p[1]), q));
+                else throw notFound();
+            }
+            case "reviews" -> {
+                if (p.length == 1 && method.equals("POST")) read(() -> leaveReview(ex, q));
+                else throw notFound();
+            }
+            case "admin" -> {
+                if (p.length == 2 && p[1].equals("users") && method.equals("GET")) read(() -> adminUsers(ex, q));
+                else if (p.length == 2 && p[1].equals("properties") && method.equals("GET")) read(() -> adminProperties(ex, q));
+                else if (p.length == 2 && p[1].equals("metrics") && method.equals("GET")) adminMetrics(ex);
+                else if (p.length == 4 && p[1].equals("users") && method.equals("POST")) write(() -> adminAccount(ex, id(p[2]), p[3]));
+                else if (p.length == 3 && p[1].equals("properties") && method.equals("DELETE")) write(() -> {
+                    adminService.removeProperty(actor(ex, Admin.class), id(p[2]));
+                    sendOk(ex);
+                });
+                else throw notFound();
+            }
+            default -> throw notFound();
+        }
+    }
+
+    //handlers
+
+    private void searchRooms(HttpExchange ex, Map<String, String> q) throws IOException {
+        DateRange period = q.containsKey("from") && q.containsKey("to")
+                ? new DateRange(LocalDate.parse(q.get("from")), LocalDate.parse(q.get("to"))) : null;
+        SearchCriteria criteria = new SearchCriteria(q.get("city"), integer(q.get("min")), integer(q.get("max")),
+                period, q.containsKey("type") ? RoomType.valueOf(q.get("type").toUpperCase()) : null);
+
+        // encoded after the lock is released, so a slow client cannot hold up listing changes
+        List<Room> rooms;
+        Lock lock = listingLock.readLock();
+        lock.lock();
+        try {
+            rooms = searchService.searchRooms(criteria);
+        } finally {
+            lock.unlock();
+        }
+        sendList(ex, rooms, this::writeRoom);
+    }
+
+    private void listBookings(HttpExchange ex) throws IOException {
+        User user = actor(ex, User.class);
+        List<Booking> bookings;
+        if (user instanceof Student) bookings = bookingService.getBookingsForStudent((Student) user);
+        else if (user instanceof Homeowner) bookings = bookingService.getBookingsForHomeowner((Homeowner) user);
+        else throw new SecurityException("Only students and homeowners have bookings.");
+        sendList(ex, bookings, this::writeBooking);
+    }
+
+    private void requestBooking(HttpExchange ex, Map<String, String> q) throws IOException {
+        Student student = actor(ex, Student.class);
+        Room room = system.getRoomById(id(required(q, "roomId")));
+        if (room == null) throw notFound();
+        DateRange period = new DateRange(LocalDate.parse(required(q, "from")), LocalDate.parse(required(q, "to")));
+
+        CompletableFuture<Booking> pending;
+        try {
+            pending = bookingPipeline.trySubmit(student, room, period,
+                    ex.getRequestHeaders().getFirst("Idempotency-Key"), BOOKING_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {  //server shutting down
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Server is shutting down.");
+        }
+        Booking booking = await(pending);
+        sendJson(ex, 201, json -> writeBooking(json, booking));
+    }
+
+    // the pipeline's failure is rethrown as is, so it maps to a status like a direct call would
+    private static Booking await(CompletableFuture<Booking> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) throw new ApiException(503, "Too many booking requests, try again.");
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void answerBooking(HttpExchange ex, long bookingId, String action) throws IOException {
+        switch (action) {
+            case "accept" -> bookingService.acceptBooking(actor(ex, Homeowner.class), bookingId);
+            case "reject" -> bookingService.rejectBooking(actor(ex, Homeowner.class), bookingId);
+            case "cancel" -> bookingService.cancelBooking(actor(ex, Student.class), bookingId);
+            default -> throw notFound();
+        }
+        Booking booking = system.getBookingById(bookingId);
+        if (booking == null) sendOk(ex);
+        else sendJson(ex, 200, json -> writeBooking(json, booking));
+    }
+
+    private void addProperty(HttpExchange ex, Map<String, String> q) throws IOException {
+        Property property = listingService.addProperty(actor(ex, Homeowner.class),
+                required(q, "address"), required(q, "city"), q.getOrDefault("description", ""));
+        sendJson(ex, 201, json -> writeProperty(json, property));
+    }
+
+    private void addRoom(HttpExchange ex, long propertyId, Map<String, String> q) throws IOException {
+        Property property = system.getPropertyById(propertyId);
+        if (property == null) throw notFound();
+
+        EnumSet<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+        for (String a : q.getOrDefault("amenities", "").split(",")) {
+            if (!a.isBlank()) amenities.add(Amenity.valueOf(a.trim().toUpperCase()));
+        }
+        Room room = listingService.addRoom(actor(ex, Homeowner.class), property,
+                RoomType.valueOf(required(q, "type").toUpperCase()), Integer.parseInt(required(q, "rent")),
+                q.getOrDefault("description", ""), amenities,
+                new DateRange(LocalDate.parse(required(q, "from")), LocalDate.parse(required(q, "to"))));
+        sendJson(ex, 201, json -> writeRoom(json, room));
+    }
+
+    private void updateRoom(HttpExchange ex, long roomId, Map<String, String> q) throws IOException {
+        listingService.updateRoom(actor(ex, Homeowner.class), roomId, integer(q.get("rent")), q.get("description"), null, null);
+        sendOk(ex);
+    }
+
+    private void topRated(HttpExchange ex, Map<String, String> q) throws IOException {
+        int n = q.containsKey("n") ? Integer.parseInt(q.get("n")) : 10;
+        sendList(ex, reviewService.getTopRatedProperties(required(q, "city"), n), this::writeProperty);
+    }
+
+    private void listReviews(HttpExchange ex, long propertyId, Map<String, String> q) throws IOException {
+        ReviewPage page = reviewService.getReviewsForProperty(propertyId,
+                q.containsKey("cursor") ? Long.valueOf(q.get("cursor")) : null,
+                q.containsKey("limit") ? Integer.parseInt(q.get("limit")) : 20,
+                q.containsKey("min") ? Integer.parseInt(q.get("min")) : 1,
+                q.containsKey("max") ? Integer.parseInt(q.get("max")) : 5);
+        sendPage(ex, page.getReviews(), page.getNextCursor() == null ? null : page.getNextCursor().toString(), this::writeReview);
+    }
+
+    private void leaveReview(HttpExchange ex, Map<String, String> q) throws IOException {
+        Review review = reviewService.leaveReview(actor(ex, Student.class), id(required(q, "bookingId")),
+                Integer.parseInt(required(q, "rating")), q.getOrDefault("comment", ""));
+        sendJson(ex, 201, json -> writeReview(json, review));
+    }
+
+    private void adminUsers(HttpExchange ex, Map<String, String> q) throws IOException {
+        Class<? extends User> role = null;
+        if (q.containsKey("role")) {
+            role = switch (q.get("role").toUpperCase()) {
+                case "STUDENT" -> Student.class;
+                case "HOMEOWNER" -> Homeowner.class;
+                case "ADMIN" -> Admin.class;
+                default -> throw new IllegalArgumentException("Unknown role: " + q.get("role"));
+            };
+        }
+        ResultPage<User> page = adminService.queryUsers(actor(ex, Admin.class), role,
+                q.containsKey("status") ? AccountStatus.valueOf(q.get("status").toUpperCase()) : null,
+                q.containsKey("sort") ? UserSort.valueOf(q.get("sort").toUpperCase()) : UserSort.ID,
+                q.get("cursor"), q.containsKey("limit") ? Integer.parseInt(q.get("limit")) : 50);
+        sendPage(ex, page.getItems(), page.getNextCursor(), this::writeUser);
+    }
+
+    private void adminProperties(HttpExchange ex, Map<String, String> q) throws IOException {
+        ResultPage<Property> page = adminService.queryProperties(actor(ex, Admin.class), q.get("city"),
+                q.containsKey("owner") ? Long.valueOf(q.get("owner")) : null,
+                q.containsKey("sort") ? PropertySort.valueOf(q.get("sort").toUpperCase()) : PropertySort.ID,
+                q.get("cursor"), q.containsKey("limit") ? Integer.parseInt(q.get("limit")) : 50);
+        sendPage(ex, page.getItems(), page.getNextCursor(), this::writeProperty);
+    }
+
+    private void adminAccount(HttpExchange ex, long userId, String action) throws IOException {
+        Admin admin = actor(ex, Admin.class);
+        switch (action) {
+            case "deactivate" -> adminService.deactivateUser(admin, userId);
+            case "reactivate" -> adminService.reactivateUser(admin, userId);
+            default -> throw notFound();
+        }
+        sendJson(ex, 200, json -> writeUser(json, system.getUserById(userId)));
+    }
+
+    private void adminMetrics(HttpExchange ex) throws IOException {
+        actor(ex, Admin.class);
+        MetricsSnapshot snapshot = system.getMetrics().snapshot();
+        sendJson(ex, 200, json -> {
+            json.beginObject().name("operations").beginObject();
+            for (Map.Entry<String, MetricsSnapshot.OperationSnapshot> e : snapshot.getOperations().entrySet()) {
+                MetricsSnapshot.OperationSnapshot op = e.getValue();
+                json.name(e.getKey()).beginObject()
+                        .field("calls", op.getCalls())
+                        .field("failures", op.getFailures())
+                        .field("meanNanos", op.getMeanNanos())
+                        .field("p50Nanos", op.getP50Nanos())
+                        .field("p99Nanos", op.getP99Nanos())
+                        .field("p999Nanos", op.getP999Nanos())
+                        .field("maxNanos", op.getMaxNanos())
+                        .endObject();
+            }
+            json.endObject();
+            json.name("counters").beginObject();
+            for (Map.Entry<String, Long> e : snapshot.getCounters().entrySet()) json.field(e.getKey(), e.getValue());
+            json.endObject();
+            json.name("gauges").beginObject();
+            for (Map.Entry<String, Long> e : snapshot.getGauges().entrySet()) json.field(e.getKey(), e.getValue());
+            json.endObject().endObject();
+        });
+    }
+
+    //locking
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private void read(Action action) throws IOException {
+        locked(listingLock.readLock(), action);
+    }
+
+    private void write(Action action) throws IOException {
+        locked(listingLock.writeLock(), action);
+    }
+
+    private static void locked(Lock lock, Action action) throws IOException {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //encoding
+
+    private void writeRoom(JsonWriter json, Room room) {
+        Property p = room.getProperty();
+        json.beginObject()
+                .field("roomId", room.getRoomId())
+                .field("propertyId", p.getPropertyId())
+                .field("address", p.getAddress())
+                .field("city", p.getCityOrArea())
+                .field("type", room.getType().name())
+                .field("monthlyRent", room.getMonthlyRent())
+                .field("description", room.getDescription())
+                .field("availableFrom", room.getAvailability().getStart().toString())
+                .field("availableTo", room.getAvailability().getEnd().toString())
+                .field("propertyRating", p.getAverageRating());
+        json.name("amenities").beginArray();
+        for (Amenity a : room.getAmenities()) json.value(a.name());
+        json.endArray().endObject();
+    }
+
+    private void writeBooking(JsonWriter json, Booking b) {
+        json.beginObject()
+                .field("bookingId", b.getBookingId())
+                .field("studentId", b.getStudent().getUserId())
+                .field("roomId", b.getRoom().getRoomId())
+                .field("from", b.getPeriod().getStart().toString())
+                .field("to", b.getPeriod().getEnd().toString())
+                .field("status", b.getStatus().name())
+                .field("createdAt", b.getCreatedAt().toString())
+                .endObject();
+    }
+
+    private void writeProperty(JsonWriter json, Property p) {
+        RatingSummary ratings = p.getRatingSummary();
+        json.beginObject()
+                .field("propertyId", p.getPropertyId())
+                .field("ownerId", p.getOwner().getUserId())
+                .field("address", p.getAddress())
+                .field("city", p.getCityOrArea())
+                .field("description", p.getDescription())
+                .field("averageRating", p.getAverageRating())
+                .field("recentRating", ratings.decayedAverage())
+                .name("ratingCounts").beginArray();  //1-star first
+        for (long count : ratings.distribution()) json.value(count);
+        json.endArray()
+                .field("rooms", p.getRooms().size())
+                .endObject();
+    }
+
+    private void writeReview(JsonWriter json, Review r) {
+        json.beginObject()
+                .field("reviewId", r.getReviewId())
+                .field("bookingId", r.getBookingId())
+                .field("propertyId", r.getProperty().getPropertyId())
+                .field("studentName", r.getStudent().getName())
+                .field("rating", r.getRating())
+                .field("comment", r.getComment())
+                .field("createdAt", r.getCreatedAt().toString())
+                .endObject();
+    }
+
+    private void writeUser(JsonWriter json, User u) {
+        json.beginObject()
+                .field("userId", u.getUserId())
+                .field("role", u.getClass().getSimpleName().toUpperCase())
+                .field("name", u.getName())
+                .field("email", u.getEmail())
+                .field("status", u.getStatus().name())
+                .endObject();
+    }
+
+    //responses
+
+    private interface Encoder<T> {
+        void write(JsonWriter json, T item);
+    }
+
+    // chunked, each item is encoded straight into the response buffer
+    private <T> void sendList(HttpExchange ex, Collection<T> items, Encoder<T> encoder) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(200, 0);
+        JsonWriter json = new JsonWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8));
+        json.beginArray();
+        for (T item : items) encoder.write(json, item);
+        json.endArray();
+        json.flush();
+    }
+
+    private <T> void sendPage(HttpExchange ex, List<T> items, String nextCursor, Encoder<T> encoder) throws IOException {
+        sendJson(ex, 200, json -> {
+            json.beginObject().name("items").beginArray();
+            for (T item : items) encoder.write(json, item);
+            json.endArray();
+            json.field("nextCursor", nextCursor).endObject();
+        });
+    }
+
+    // small bodies are sent with a length; the consumer writes one complete JSON value
+    private void sendJson(HttpExchange ex, int status, Consumer<JsonWriter> value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        Writer out = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        JsonWriter json = new JsonWriter(out);
+        value.accept(json);
+        json.flush();
+        sendBytes(ex, status, buffer.toByteArray());
+    }
+
+    private void sendOk(HttpExchange ex) throws IOException {
+        sendJson(ex, 200, json -> json.beginObject().field("ok", true).endObject());
+    }
+
+    private void sendError(HttpExchange ex, int status, String message) {
+        try {
+            sendJson(ex, status, json -> json.beginObject().field("error", message == null ? "" : message).endObject());
+        } catch (IOException | RuntimeException e) {
+            // headers may already be sent or the client has gone, nothing more to tell it
+        }
+    }
+
+    private static void sendBytes(HttpExchange ex, int status, byte[] body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    //request parsing
+
+    private <U extends User> U actor(HttpExchange ex, Class<U> type) {
+        String header = ex.getRequestHeaders().getFirst("X-User-Id");
+        if (header == null) throw new ApiException(401, "X-User-Id header is required.");
+        User user = system.getUserById(id(header));
+        if (user == null) throw new ApiException(401, "Unknown user: " + header);
+        if (!type.isInstance(user)) throw new SecurityException("This action needs a " + type.getSimpleName() + " account.");
+        return type.cast(user);
+    }
+
+    private static Map<String, String> params(HttpExchange ex) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(ex.getRequestURI().getRawQuery(), params);
+
+        byte[] raw;
+        try (InputStream in = ex.getRequestBody()) {
+            raw = readBody(ex, in);
+        }
+        if (raw.length == 0) return params;
+
+        String body = new String(raw, StandardCharsets.UTF_8);
+        String type = ex.getRequestHeaders().getFirst("Content-Type");
+        if (type != null && type.contains("json")) parseFlatJson(body, params);
+        else parseForm(body, params);
+        return params;
+    }
+
+    // refuses a declared length over the limit up front, and stops reading once a body without one passes it
+    private static byte[] readBody(HttpExchange ex, InputStream in) throws IOException {
+        String length = ex.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            long declared;
+            try {
+                declared = Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Bad Content-Length: " + length);
+            }
+            if (declared > MAX_BODY_BYTES) throw tooLarge();
+        }
+
+        byte[] raw = in.readNBytes(MAX_BODY_BYTES + 1);
+        if (raw.length > MAX_BODY_BYTES) throw tooLarge();
+        return raw;
+    }
+
+    private static ApiException tooLarge() {
+        return new ApiException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes.");
+    }
+
+    private static void parseForm(String form, Map<String, String> into) {
+        if (form == null || form.isEmpty()) return;
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!key.isEmpty() && !value.isEmpty()) into.put(key, value);
+        }
+    }
+
+    /*
+    Reads one JSON object whose values are strings, numbers, booleans or null; that is all
+    the API accepts, so nested values are rejected rather than half understood.
+     */
+    private static void parseFlatJson(String s, Map<String, String> into) {
+        int[] pos = {skip(s, 0)};
+        expect(s, pos, '{');
+        if (peek(s, pos) == '}') return;
+        while (true) {
+            String key = readString(s, pos);
+            expect(s, pos, ':');
+            char c = peek(s, pos);
+            String value;
+            if (c == '"') {
+                value = readString(s, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < s.length() && ",} \t\r\n".indexOf(s.charAt(pos[0])) < 0) pos[0]++;
+                value = s.substring(start, pos[0]);
+                if (value.isEmpty() || value.charAt(0) == '{' || value.charAt(0) == '[') {
+                    throw new IllegalArgumentException("Unsupported JSON value for " + key);
+                }
+                pos[0] = skip(s, pos[0]);
+            }
+            if (!value.equals("null")) into.put(key, value);
+
+            char next = peek(s, pos);
+            pos[0]++;
+            if (next == '}') return;
+            if (next != ',') throw new IllegalArgumentException("Malformed JSON body.");
+            pos[0] = skip(s, pos[0]);
+        }
+    }
+
+    private static String readString(String s, int[] pos) {
+        expect(s, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos[0] >= s.length()) throw new IllegalArgumentException("Malformed JSON body.");
+            char c = s.charAt(pos[0]++);
+            if (c == '"') break;
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= s.length()) throw new IllegalArgumentException("Malformed JSON body.");
+            char e = s.charAt(pos[0]++);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos[0] + 4 > s.length()) throw new IllegalArgumentException("Malformed JSON body.");
+                    sb.append((char) Integer.parseInt(s.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                }
+                default -> sb.append(e);    //quote, backslash and slash stand for themselves
+            }
+        }
+        pos[0] = skip(s, pos[0]);
+        return sb.toString();
+    }
+
+    private static void expect(String s, int[] pos, char c) {
+        if (peek(s, pos) != c) throw new IllegalArgumentException("Malformed JSON body.");
+        pos[0] = skip(s, pos[0] + 1);
+    }
+
+    private static char peek(String s, int[] pos) {
+        if (pos[0] >= s.length()) throw new IllegalArgumentException("Malformed JSON body.");
+        return s.charAt(pos[0]);
+    }
+
+    private static int skip(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static String required(Map<String, String> q, String name) {
+        String value = q.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(name + " is required.");
+        return value;
+    }
+
+    private static Integer integer(String s) {
+        return s == null || s.isBlank() ? null : Integer.valueOf(s.trim());
+    }
+
+    private static long id(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID: " + s);
+        }
+    }
+
+    private static ApiException notFound() {
+        return new ApiException(404, "Not found.");
+    }
+
+    private static final class ApiException extends RuntimeException {    //an error with its own HTTP status
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
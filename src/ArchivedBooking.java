@@ -0,0 +1,75 @@
+import java.time.LocalDate;
+
+public class ArchivedBooking {
+
+    private final long bookingId;
+    private final long studentId;
+    private final long roomId;
+    private final long propertyId;
+    private final DateRange period;
+    private final BookingStatus status;
+    private final LocalDate createdAt;  //read-only copy of a booking moved to the archive
+
+    public ArchivedBooking(long bookingId,
+                           long studentId,
+                           long roomId,
+                           long propertyId,
+                           DateRange period,
+                           BookingStatus status,
+                           LocalDate createdAt) {
+
+        if (period == null || status == null || createdAt == null) {
+            throw new IllegalArgumentException("Archived booking fields must not be null.");
+        }
+
+        this.bookingId = bookingId;
+        this.studentId = studentId;
+        this.roomId = roomId;
+        this.propertyId = propertyId;
+        this.period = period;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    public static ArchivedBooking of(Booking booking) {
+        Room room = booking.getRoom();
+        return new ArchivedBooking(
+                booking.getBookingId(),
+                booking.getStudent().getUserId(),
+                room.getRoomId(),
+                room.getProperty().getPropertyId(),
+                booking.getPeriod(),
+                booking.getStatus(),
+                booking.getCreatedAt());
+    }
+
+    //getters
+
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    public long getStudentId() {
+        return studentId;
+    }
+
+    public long getRoomId() {
+        return roomId;
+    }
+
+    public long getPropertyId() {
+        return propertyId;
+    }
+
+    public DateRange getPeriod() {
+        return period;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+}
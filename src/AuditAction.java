@@ -0,0 +1,16 @@
+public enum AuditAction {
+    USER_DEACTIVATE,
+    USER_REACTIVATE,
+    PROPERTY_ADD,
+    PROPERTY_UPDATE,
+    PROPERTY_REMOVE,
+    ROOM_ADD,
+    ROOM_UPDATE,
+    ROOM_REMOVE,
+    BOOKING_ACCEPT,
+    BOOKING_REJECT,
+    BOOKING_CANCEL,
+    REVIEW_LEAVE,
+    SAVED_SEARCH_REMOVE
+}
+//preset values for the actions recorded in the AuditLog
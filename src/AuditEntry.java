@@ -0,0 +1,75 @@
+import java.time.Instant;
+
+public class AuditEntry {
+
+    public enum Outcome {
+        ALLOWED,
+        DENIED      //stopped by an ownership or permission check
+    }
+
+    private final long timestamp;   //epoch millis
+    private final long actorId;     //user who acted, 0 if unknown
+    private final AuditAction action;
+    private final Outcome outcome;
+    private final long targetId;    //property, room, booking or user ID depending on the action
+    private final String detail;
+    //one line of the audit trail
+
+    public AuditEntry(long timestamp, long actorId, AuditAction action, Outcome outcome, long targetId, String detail) {
+        if (action == null || outcome == null) throw new IllegalArgumentException("Action and outcome must not be null.");
+        this.timestamp = timestamp;
+        this.actorId = actorId;
+        this.action = action;
+        this.outcome = outcome;
+        this.targetId = targetId;
+        this.detail = detail == null ? "" : detail;
+    }
+
+    public static AuditEntry allowed(User actor, AuditAction action, long targetId, String detail) {
+        return new AuditEntry(System.currentTimeMillis(), actorId(actor), action, Outcome.ALLOWED, targetId, detail);
+    }
+
+    public static AuditEntry denied(User actor, AuditAction action, long targetId, String reason) {
+        return new AuditEntry(System.currentTimeMillis(), actorId(actor), action, Outcome.DENIED, targetId, reason);
+    }
+
+    private static long actorId(User actor) {
+        return actor == null ? 0 : actor.getUserId();
+    }
+
+    //getters
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getActorId() {
+        return actorId;
+    }
+
+    public AuditAction getAction() {
+        return action;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public long getTargetId() {
+        return targetId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) +
+                " user#" + actorId +
+                " " + action +
+                " #" + targetId +
+                " " + outcome +
+                (detail.isEmpty() ? "" : " (" + detail + ")");
+    }
+}
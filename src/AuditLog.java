@@ -0,0 +1,295 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class AuditLog implements AutoCloseable {
+
+    /*
+    Audit trail of admin and ownership-sensitive actions.
+    record() only puts the entry into a lock-free ring buffer, so callers never wait on disk;
+    if the buffer is full the entry is dropped and counted. A daemon thread drains the buffer
+    in batches and appends one tab-separated line per entry to numbered log files, starting a
+    new file once the current one reaches its size limit. Each file's earliest and latest
+    timestamps are kept in memory, so a time-range query only reads the files that overlap it.
+     */
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final long DEFAULT_MAX_FILE_BYTES = 16L * 1024 * 1024;
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final RingBuffer<AuditEntry> buffer;
+    private final List<LogFile> files = new ArrayList<>();  //guarded by this, oldest first
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();  //written or failed, so flush() always finishes
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private BufferedWriter writer;  //writer thread only
+    private long currentBytes;
+
+    public AuditLog(Path directory) {
+        this(directory, DEFAULT_CAPACITY, DEFAULT_MAX_FILE_BYTES);
+    }
+
+    public AuditLog(Path directory, int capacity, long maxFileBytes) {
+        if (directory == null) throw new IllegalArgumentException("Directory must not be null.");
+        if (maxFileBytes <= 0) throw new IllegalArgumentException("Max file size must be positive.");
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.buffer = new RingBuffer<>(capacity);
+
+        try {
+            Files.createDirectories(directory);
+            loadExistingFiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log at " + directory, e);
+        }
+
+        writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public boolean record(AuditEntry entry) {   //never blocks, false if the entry had to be dropped
+        if (entry == null) throw new IllegalArgumentException("Entry must not be null.");
+        if (!running || !buffer.offer(entry)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    /*
+    Waits until everything recorded so far is on disk (or has failed to write).
+    Returns false on timeout.
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (processed.get() < target) {
+            if (System.nanoTime() > deadline) return false;
+            if (Thread.interrupted()) throw new InterruptedException();
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /*
+    Entries with fromMillis <= timestamp < toMillis, oldest first. Flushes first so the
+    result includes everything recorded before the call.
+     */
+    public List<AuditEntry> query(long fromMillis, long toMillis) throws InterruptedException {
+        if (fromMillis > toMillis) throw new IllegalArgumentException("Range start must not be after its end.");
+        flush(5, TimeUnit.SECONDS);
+
+        List<Path> overlapping = new ArrayList<>();
+        synchronized (this) {
+            for (LogFile f : files) {
+                if (f.maxTimestamp >= fromMillis && f.minTimestamp < toMillis) overlapping.add(f.path);
+            }
+        }
+
+        List<AuditEntry> results = new ArrayList<>();
+        for (Path path : overlapping) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    AuditEntry entry = parse(line);
+                    if (entry != null && entry.getTimestamp() >= fromMillis && entry.getTimestamp() < toMillis) {
+                        results.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read audit log " + path, e);
+            }
+        }
+        results.sort(Comparator.comparingLong(AuditEntry::getTimestamp));   //producers can race by a few millis
+        return results;
+    }
+
+    public long getRecordedCount() {
+        return accepted.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public synchronized int getFileCount() {
+        return files.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {   //writes out what is already buffered, then stops
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //writer thread
+
+    private void drainLoop() {
+        List<AuditEntry> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            batch.clear();
+            buffer.drainTo(batch, MAX_BATCH);
+            if (batch.isEmpty()) {
+                if (!running) break;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            write(batch);
+        }
+        closeWriter();
+    }
+
+    private void write(List<AuditEntry> batch) {
+        try {
+            for (AuditEntry entry : batch) {
+                String line = format(entry);
+                long bytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (writer == null || (currentBytes + bytes > maxFileBytes && currentBytes > 0)) rotate();
+
+                writer.write(line);
+                writer.newLine();
+                currentBytes += bytes;
+                synchronized (this) {
+                    files.get(files.size() - 1).include(entry.getTimestamp());
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            failed.addAndGet(batch.size());
+            closeWriter();      //start a fresh file on the next batch
+        }
+        processed.addAndGet(batch.size());
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        Path path;
+        synchronized (this) {
+            path = directory.resolve(String.format("%s%06d%s", PREFIX, files.size() + 1, SUFFIX));
+            files.add(new LogFile(path));
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentBytes = Files.size(path);
+    }
+
+    private void closeWriter() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // already failing, the entries are counted as failed
+        }
+        writer = null;
+    }
+
+    private void loadExistingFiles() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) paths.add(p);
+        }
+        paths.sort(null);   //zero-padded numbers sort in file order
+
+        for (Path path : paths) {
+            LogFile file = new LogFile(path);
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    AuditEntry entry = parse(line);
+                    if (entry != null) file.include(entry.getTimestamp());
+                }
+            }
+            files.add(file);
+        }
+    }
+
+    //line format: timestamp, actorId, action, outcome, targetId, detail, tab separated
+
+    private static String format(AuditEntry e) {
+        return e.getTimestamp() + "\t" + e.getActorId() + "\t" + e.getAction() + "\t" + e.getOutcome() +
+                "\t" + e.getTargetId() + "\t" + escape(e.getDetail());
+    }
+
+    private static AuditEntry parse(String line) {  //null for a line cut short by a crash
+        String[] parts = line.split("\t", 6);
+        if (parts.length < 6) return null;
+        try {
+            return new AuditEntry(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    AuditAction.valueOf(parts[2]), AuditEntry.Outcome.valueOf(parts[3]),
+                    Long.parseLong(parts[4]), unescape(parts[5]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char n = s.charAt(++i);
+                sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class LogFile {    //one rotated file and the time span it covers
+        private final Path path;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        private LogFile(Path path) {
+            this.path = path;
+        }
+
+        private void include(long timestamp) {
+            if (timestamp < minTimestamp) minTimestamp = timestamp;
+            if (timestamp > maxTimestamp) maxTimestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AvailabilityCalendar {
+
+    /*
+    One bit per day for a room, set = free. Covers the room's availability window from today
+    (or from its first day, if that is later), capped at HORIZON_DAYS, and clears the days taken
+    by ACCEPTED bookings. Past days are never covered, so the bitmap rolls forward: once the
+    day it starts on has passed, isCurrent() turns false and the owner rebuilds it with reset().
+    Free/busy checks and free-range searches work on 64 days at a time.
+    A two year horizon costs 12 longs (96 bytes) per room.
+
+    Readers take no lock: each query reads one immutable snapshot of the window (base day,
+    length and bit array), so a rebuild never shows a half-updated calendar. Writers are
+    serialised by the owning Room, which also rebuilds the calendar on the first use each day.
+     */
+
+    public static final int HORIZON_DAYS = 731;
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static volatile long cachedToday;       //local epoch day, refreshed at most once a minute
+    private static volatile long todayCheckedUntil;
+
+    private volatile Bits bits;
+
+    public AvailabilityCalendar(DateRange availability) {
+        bits = build(availability, today());
+    }
+
+    /*
+    The current local date as an epoch day, without the time zone lookup of LocalDate.now()
+    on every call; hot read paths ask for it.
+     */
+    public static long today() {
+        long now = System.currentTimeMillis();
+        if (now >= todayCheckedUntil) {
+            cachedToday = LocalDate.now().toEpochDay();
+            todayCheckedUntil = Math.min(now + 60_000, Math.floorDiv(now, DAY_MILLIS) * DAY_MILLIS + DAY_MILLIS);
+        }
+        return cachedToday;
+    }
+
+    /*
+    Rebuilds the bitmap from today for the given window and accepted bookings, then swaps it
+    in, so readers see either the old calendar or the finished new one.
+     */
+    public void reset(DateRange availability, Iterable<Booking> accepted) {
+        Bits b = build(availability, today());
+        for (Booking booking : accepted) b.setClamped(booking.getPeriod(), false);
+        bits = b;
+    }
+
+    public boolean isCurrent(long today) {  //false once the first covered day is in the past
+        Bits b = bits;
+        return b.base >= today || b.days == 0;
+    }
+
+    public boolean covers(DateRange period) {
+        return bits.covers(period);
+    }
+
+    public boolean isFree(DateRange period) {   //only meaningful when covers(period)
+        Bits b = bits;
+        return b.covers(period) && b.allSet(b.offset(period.getStartEpochDay()), b.offset(period.getEndEpochDay()));
+    }
+
+    /*
+    Whether the period is free according to the bitmap, or null when the period is not
+    inside it and the caller has to answer another way. Reads a single snapshot.
+     */
+    public Boolean isFreeIfCovered(DateRange period) {
+        Bits b = bits;
+        if (!b.covers(period)) return null;
+        return b.allSet(b.offset(period.getStartEpochDay()), b.offset(period.getEndEpochDay()));
+    }
+
+    public void markBusy(DateRange period) {
+        bits.setClamped(period, false);
+    }
+
+    public void markFree(DateRange period) {
+        bits.setClamped(period, true);
+    }
+
+    /*
+    Free stretches of at least `nights` days, earliest first, up to `limit` results.
+    Each result is the whole free stretch, not just its first `nights` days.
+     */
+    public List<DateRange> findFreeRanges(int nights, int limit) {
+        if (nights <= 0) throw new IllegalArgumentException("Nights must be positive.");
+
+        Bits b = bits;
+        List<DateRange> results = new ArrayList<>();
+        int from = b.nextSet(0);
+        while (from >= 0 && results.size() < limit) {
+            int to = b.nextClear(from);
+            if (to - from >= nights) results.add(b.toRange(from, to));
+            from = b.nextSet(to);
+        }
+        return results;
+    }
+
+    /*
+    First free stretch of `nights` days starting on or after the given day, or null.
+     */
+    public DateRange findFreeWindowFrom(LocalDate earliestStart, int nights) {
+        Bits b = bits;
+        int from = b.nextSet((int) Math.max(0, Math.min(b.days, earliestStart.toEpochDay() - b.base)));
+        while (from >= 0) {
+            int to = b.nextClear(from);
+            if (to - from >= nights) return b.toRange(from, from + nights);
+            from = b.nextSet(to);
+        }
+        return null;
+    }
+
+    /*
+    Last free stretch of `nights` days ending on or before the given day, or null.
+     */
+    public DateRange findFreeWindowBefore(LocalDate latestEnd, int nights) {
+        Bits b = bits;
+        int end = (int) Math.min(b.days, latestEnd.toEpochDay() - b.base);
+        while (end > 0) {
+            int lastFree = b.prevSet(end - 1);
+            if (lastFree < 0) return null;
+            int runStart = b.prevClear(lastFree) + 1;
+            if (lastFree + 1 - runStart >= nights) return b.toRange(lastFree + 1 - nights, lastFree + 1);
+            end = runStart;
+        }
+        return null;
+    }
+
+    public long getBaseEpochDay() {
+        return bits.base;
+    }
+
+    public int getDays() {
+        return bits.days;
+    }
+
+    public int freeDayCount() {
+        int count = 0;
+        for (long w : bits.words) count += Long.bitCount(w);
+        return count;
+    }
+
+    public long memoryBytes() {  //payload only: the bit words plus the array and snapshot headers
+        return 16L + 8L * bits.words.length + 32L;
+    }
+
+    private static Bits build(DateRange availability, long today) {
+        long base = Math.max(today, availability.getStartEpochDay());
+        int days = (int) Math.max(0, Math.min(availability.getEndEpochDay() - base, HORIZON_DAYS));
+        Bits b = new Bits(base, days);
+        if (days > 0) b.setRange(0, days, true);
+        return b;
+    }
+
+    //bit helpers, positions are days since base
+
+    private static final class Bits {
+        final long base;    //epoch day of bit 0
+        final int days;     //number of days covered
+        final long[] words;
+
+        Bits(long base, int days) {
+            this.base = base;
+            this.days = days;
+            this.words = new long[(days + 63) >>> 6];
+        }
+
+        boolean covers(DateRange period) {
+            return period.getStartEpochDay() >= base && period.getEndEpochDay() <= base + days;
+        }
+
+        int offset(long epochDay) {
+            return (int) (epochDay - base);
+        }
+
+        void setClamped(DateRange period, boolean free) {
+            int from = (int) Math.max(0, period.getStartEpochDay() - base);
+            int to = (int) Math.min(days, period.getEndEpochDay() - base);
+            if (from < to) setRange(from, to, free);
+        }
+
+        void setRange(int from, int to, boolean value) {
+            int firstWord = from >>> 6;
+            int lastWord = (to - 1) >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+                if (w == firstWord) mask &= -1L << (from & 63);
+                if (w == lastWord) mask &= -1L >>> (63 - ((to - 1) & 63));
+                if (value) words[w] |= mask;
+                else words[w] &= ~mask;
+            }
+        }
+
+        boolean allSet(int from, int to) {
+            if (from >= to) return true;
+            int firstWord = from >>> 6;
+            int lastWord = (to - 1) >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+                if (w == firstWord) mask &= -1L << (from & 63);
+                if (w == lastWord) mask &= -1L >>> (63 - ((to - 1) & 63));
+                if ((words[w] & mask) != mask) return false;
+            }
+            return true;
+        }
+
+        int nextSet(int from) {   //first free day >= from, or -1
+            if (from >= days) return -1;
+            int w = from >>> 6;
+            long word = words[w] & (-1L << (from & 63));
+            while (true) {
+                if (word != 0) {
+                    int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                    return bit < days ? bit : -1;
+                }
+                if (++w == words.length) return -1;
+                word = words[w];
+            }
+        }
+
+        int nextClear(int from) {   //first busy day >= from, or days
+            if (from >= days) return days;
+            int w = from >>> 6;
+            long word = ~words[w] & (-1L << (from & 63));
+            while (true) {
+                if (word != 0) return Math.min(days, (w << 6) + Long.numberOfTrailingZeros(word));
+                if (++w == words.length) return days;
+                word = ~words[w];
+            }
+        }
+
+        int prevSet(int from) {   //last free day <= from, or -1
+            if (from < 0) return -1;
+            int w = from >>> 6;
+            long word = words[w] & (-1L >>> (63 - (from & 63)));
+            while (true) {
+                if (word != 0) return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+                if (w-- == 0) return -1;
+                word = words[w];
+            }
+        }
+
+        int prevClear(int from) {   //last busy day <= from, or -1
+            if (from < 0) return -1;
+            int w = from >>> 6;
+            long word = ~words[w] & (-1L >>> (63 - (from & 63)));
+            while (true) {
+                if (word != 0) return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+                if (w-- == 0) return -1;
+                word = ~words[w];
+            }
+        }
+
+        DateRange toRange(int from, int to) {
+            return new DateRange(LocalDate.ofEpochDay(base + from), LocalDate.ofEpochDay(base + to));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+import java.util.Comparator;
+
+public enum BatchAcceptPolicy {
+    EARLIEST_REQUEST(Comparator.comparing(Booking::getCreatedAt)
+            .thenComparingLong(Booking::getBookingId)),  //ids are issued in order, so they break same-day ties
+    LONGEST_STAY(Comparator.comparingLong((Booking b) ->
+                    b.getPeriod().getStartEpochDay() - b.getPeriod().getEndEpochDay())  //negated length, longest first
+            .thenComparingLong(Booking::getBookingId));
+
+    private final Comparator<Booking> priority;
+
+    BatchAcceptPolicy(Comparator<Booking> priority) {
+        this.priority = priority;
+    }
+
+    public Comparator<Booking> priority() { //bookings that should win a conflict come first
+        return priority;
+    }
+}
+//how a batch accept decides which of two overlapping requests wins
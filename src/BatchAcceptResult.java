@@ -0,0 +1,23 @@
+import java.util.Collections;
+import java.util.List;
+
+public class BatchAcceptResult {
+
+    private final List<Booking> accepted;
+    private final List<Booking> rejected;   //requests that lost a conflict in the batch
+
+    public BatchAcceptResult(List<Booking> accepted, List<Booking> rejected) {
+        this.accepted = Collections.unmodifiableList(accepted);
+        this.rejected = Collections.unmodifiableList(rejected);
+    }
+
+    //getters
+
+    public List<Booking> getAccepted() {
+        return accepted;
+    }
+
+    public List<Booking> getRejected() {
+        return rejected;
+    }
+}
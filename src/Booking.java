@@ -6,24 +6,37 @@ public class Booking {
     private final Student student;
     private final Room room;
     private final DateRange period;
-    private BookingStatus status;
+    private volatile BookingStatus status;   //written under the room lock in BookingService, read anywhere
     private final LocalDate createdAt;  //initialise attributes for booking class
 
     public Booking(long bookingId,  //constructor for booking class
                    Student student,
                    Room room,
                    DateRange period) {
+        this(bookingId, student, room, period, LocalDate.now());
+    }
+
+    public Booking(long bookingId, Student student, Room room, DateRange period, LocalDate createdAt) {   //for imported or generated history
+        this(bookingId, student, room, period, createdAt, BookingStatus.REQUESTED);
+    }
 
+    /*
+    A booking loaded with its status already decided. Nothing is registered with the room here:
+    StudentRentalsSystem.loadBookings marks ACCEPTED ones in the room once the whole batch is checked.
+     */
+    public Booking(long bookingId, Student student, Room room, DateRange period, LocalDate createdAt, BookingStatus status) {
         if (student == null || room == null || period == null) {
             throw new IllegalArgumentException("Booking fields must not be null.");
         }
+        if (createdAt == null) throw new IllegalArgumentException("Created date must not be null.");
+        if (status == null) throw new IllegalArgumentException("Status must not be null.");
 
         this.bookingId = bookingId;
         this.student = student;
         this.room = room;
         this.period = period;
-        this.status = BookingStatus.REQUESTED;  //uses BookingStatus enum for status
-        this.createdAt = LocalDate.now();
+        this.status = status;  //uses BookingStatus enum for status
+        this.createdAt = createdAt;
     }
 
     //getters and status update methods
@@ -53,14 +66,30 @@ public class Booking {
     }
 
     public void accept() {
+        if (status == BookingStatus.ACCEPTED) return;
+        room.bookingAccepted(this);    //throws if it would overlap another accepted booking
         status = BookingStatus.ACCEPTED;
     }
 
     public void reject() {
+        if (status == BookingStatus.ACCEPTED) room.acceptedBookingReleased(this);
         status = BookingStatus.REJECTED;
     }
 
+    public void expire() {
+        if (status == BookingStatus.REQUESTED) status = BookingStatus.EXPIRED;    //only unanswered requests expire
+    }
+
+    public void suspend() {
+        if (status == BookingStatus.REQUESTED) status = BookingStatus.SUSPENDED;  //only pending requests are put on hold
+    }
+
+    public void resume() {
+        if (status == BookingStatus.SUSPENDED) status = BookingStatus.REQUESTED;
+    }
+
     public void cancel() {
+        if (status == BookingStatus.ACCEPTED) room.acceptedBookingReleased(this);
         status = BookingStatus.CANCELLED;
     }
 }
\ No newline at end of file
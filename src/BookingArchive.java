@@ -0,0 +1,311 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BookingArchive implements AutoCloseable {
+
+    /*
+    Append-only on-disk store for bookings that are finished with (rejected, cancelled,
+    expired, or accepted and in the past). Records are fixed size and written to numbered
+    segment files that roll over at a set record count. Only position indexes by booking,
+    student and room stay on the heap, as sorted primitive arrays (16 bytes per entry, no
+    boxing); the records are read back from disk on demand.
+    Opening an existing directory rebuilds the indexes from the segments.
+     */
+
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1_000_000;
+
+    // bookingId, studentId, roomId, propertyId (longs), start/end/created epoch days (ints), status (byte)
+    private static final int RECORD_SIZE = 4 * Long.BYTES + 3 * Integer.BYTES + 1;
+    private static final String PREFIX = "bookings-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final List<FileChannel> segments = new ArrayList<>();
+    private int recordsInLastSegment;
+
+    // positions are (segment << 32 | record index)
+    private final PositionIndex positionByBookingId = new PositionIndex();
+    private final PositionIndex positionsByStudentId = new PositionIndex();
+    private final PositionIndex positionsByRoomId = new PositionIndex();
+
+    public BookingArchive(Path directory) {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public BookingArchive(Path directory, int recordsPerSegment) {
+        if (directory == null) throw new IllegalArgumentException("Directory must not be null.");
+        if (recordsPerSegment <= 0) throw new IllegalArgumentException("Records per segment must be positive.");
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+
+        try {
+            Files.createDirectories(directory);
+            loadExistingSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open booking archive at " + directory, e);
+        }
+    }
+
+    public synchronized void append(List<ArchivedBooking> bookings) {
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+            for (ArchivedBooking b : bookings) {
+                if (positionByBookingId.first(b.getBookingId()) >= 0) continue;    //already archived
+
+                if (segments.isEmpty() || recordsInLastSegment == recordsPerSegment) openNewSegment();
+                int segment = segments.size() - 1;
+                int index = recordsInLastSegment;
+
+                buf.clear();
+                write(buf, b);
+                buf.flip();
+                FileChannel channel = segments.get(segment);
+                long offset = (long) index * RECORD_SIZE;
+                while (buf.hasRemaining()) {
+                    offset += channel.write(buf, offset);
+                }
+
+                recordsInLastSegment++;
+                index(b, ((long) segment << 32) | index);
+            }
+            if (!segments.isEmpty()) segments.get(segments.size() - 1).force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to booking archive.", e);
+        }
+    }
+
+    public synchronized ArchivedBooking findById(long bookingId) {
+        long position = positionByBookingId.first(bookingId);
+        return position < 0 ? null : read(position);
+    }
+
+    public synchronized List<ArchivedBooking> findByStudent(long studentId) {
+        return readAll(positionsByStudentId.all(studentId));
+    }
+
+    public synchronized List<ArchivedBooking> findByRoom(long roomId) {
+        return readAll(positionsByRoomId.all(roomId));
+    }
+
+    public synchronized boolean contains(long bookingId) {
+        return positionByBookingId.first(bookingId) >= 0;
+    }
+
+    public synchronized int size() {
+        return positionByBookingId.size();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (FileChannel channel : segments) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // closing anyway, nothing useful to do
+            }
+        }
+        segments.clear();
+    }
+
+    //segment handling
+
+    private void loadExistingSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) files.add(p);
+        }
+        files.sort(null);   //zero-padded numbers sort in segment order
+
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+        for (Path file : files) {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long records = channel.size() / RECORD_SIZE;
+            channel.truncate(records * RECORD_SIZE);    //drop a half-written record left by a crash
+
+            int segment = segments.size();
+            segments.add(channel);
+            for (int i = 0; i < records; i++) {
+                buf.clear();
+                readFully(channel, buf, (long) i * RECORD_SIZE);
+                buf.flip();
+                index(read(buf), ((long) segment << 32) | i);
+            }
+            recordsInLastSegment = (int) records;
+        }
+    }
+
+    private void openNewSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", PREFIX, segments.size() + 1, SUFFIX));
+        segments.add(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        recordsInLastSegment = 0;
+    }
+
+    private void index(ArchivedBooking b, long position) {
+        positionByBookingId.add(b.getBookingId(), position);
+        positionsByStudentId.add(b.getStudentId(), position);
+        positionsByRoomId.add(b.getRoomId(), position);
+    }
+
+    private List<ArchivedBooking> readAll(long[] positions) {
+        List<ArchivedBooking> results = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            results.add(read(position));
+        }
+        return results;
+    }
+
+    private ArchivedBooking read(long position) {
+        FileChannel channel = segments.get((int) (position >>> 32));
+        long offset = (position & 0xFFFFFFFFL) * RECORD_SIZE;
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+        try {
+            readFully(channel, buf, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read booking archive.", e);
+        }
+        buf.flip();
+        return read(buf);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, offset + buf.position()) < 0) throw new IOException("Truncated archive record.");
+        }
+    }
+
+    //record format
+
+    private static void write(ByteBuffer buf, ArchivedBooking b) {
+        buf.putLong(b.getBookingId());
+        buf.putLong(b.getStudentId());
+        buf.putLong(b.getRoomId());
+        buf.putLong(b.getPropertyId());
+        buf.putInt((int) b.getPeriod().getStartEpochDay());
+        buf.putInt((int) b.getPeriod().getEndEpochDay());
+        buf.putInt((int) b.getCreatedAt().toEpochDay());
+        buf.put((byte) b.getStatus().ordinal());     //new statuses must be added at the end of BookingStatus
+    }
+
+    private static ArchivedBooking read(ByteBuffer buf) {
+        long bookingId = buf.getLong();
+        long studentId = buf.getLong();
+        long roomId = buf.getLong();
+        long propertyId = buf.getLong();
+        LocalDate start = LocalDate.ofEpochDay(buf.getInt());
+        LocalDate end = LocalDate.ofEpochDay(buf.getInt());
+        LocalDate created = LocalDate.ofEpochDay(buf.getInt());
+        BookingStatus status = BookingStatus.values()[buf.get()];
+        return new ArchivedBooking(bookingId, studentId, roomId, propertyId, new DateRange(start, end), status, created);
+    }
+
+    /*
+    Key -> position pairs in two sorted runs of parallel long arrays: a large main run and a
+    small tail that takes new entries by binary insertion. A full tail is merged into the main
+    run in one backward pass, so adding costs at most a 4096-entry shift plus an occasional
+    linear merge, and a lookup is two binary searches. Equal keys keep their insertion order, which is archive order.
+     */
+    private static final class PositionIndex {
+        private static final int TAIL_CAPACITY = 4096;
+
+        private long[] keys = new long[TAIL_CAPACITY];
+        private long[] positions = new long[TAIL_CAPACITY];
+        private int size;
+        private final long[] tailKeys = new long[TAIL_CAPACITY];
+        private final long[] tailPositions = new long[TAIL_CAPACITY];
+        private int tailSize;
+
+        private void add(long key, long position) {
+            if (tailSize == TAIL_CAPACITY) mergeTail();
+            int at = upperBound(tailKeys, tailSize, key);
+            System.arraycopy(tailKeys, at, tailKeys, at + 1, tailSize - at);
+            System.arraycopy(tailPositions, at, tailPositions, at + 1, tailSize - at);
+            tailKeys[at] = key;
+            tailPositions[at] = position;
+            tailSize++;
+        }
+
+        private long first(long key) {  //earliest position for the key, or -1
+            int i = lowerBound(keys, size, key);
+            if (i < size && keys[i] == key) return positions[i];
+            i = lowerBound(tailKeys, tailSize, key);
+            return i < tailSize && tailKeys[i] == key ? tailPositions[i] : -1;
+        }
+
+        private long[] all(long key) {  //every position for the key, in archive order
+            int from = lowerBound(keys, size, key);
+            int to = upperBound(keys, size, key);
+            int tailFrom = lowerBound(tailKeys, tailSize, key);
+            int tailTo = upperBound(tailKeys, tailSize, key);
+
+            long[] result = new long[(to - from) + (tailTo - tailFrom)];
+            System.arraycopy(positions, from, result, 0, to - from);
+            System.arraycopy(tailPositions, tailFrom, result, to - from, tailTo - tailFrom);
+            return result;
+        }
+
+        private int size() {
+            return size + tailSize;
+        }
+
+        private void mergeTail() {  //merges from the back, in place; main entries stay first on equal keys
+            if (size + tailSize > keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(keys.length * 2, size + tailSize));
+                positions = Arrays.copyOf(positions, keys.length);
+            }
+            int i = size - 1;
+            int j = tailSize - 1;
+            for (int k = size + tailSize - 1; j >= 0; k--) {
+                if (i >= 0 && keys[i] > tailKeys[j]) {
+                    keys[k] = keys[i];
+                    positions[k] = positions[i--];
+                } else {
+                    keys[k] = tailKeys[j];
+                    positions[k] = tailPositions[j--];
+                }
+            }
+            size += tailSize;
+            tailSize = 0;
+        }
+
+        private static int lowerBound(long[] a, int size, long key) {   //first index with a[i] >= key
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static int upperBound(long[] a, int size, long key) {   //first index with a[i] > key
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
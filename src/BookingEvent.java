@@ -0,0 +1,41 @@
+public class BookingEvent extends DomainEvent {
+
+    private final Booking booking;
+    private final BookingStatus previousStatus;
+    private final BookingStatus newStatus;
+    private final String cityOrArea;
+    private final int monthlyRent;  //room's city and rent when the change happened, subscribers run later
+
+    public BookingEvent(DomainEventType type, Booking booking, BookingStatus previousStatus) {
+        super(type);
+        if (booking == null) throw new IllegalArgumentException("Booking must not be null.");
+
+        this.booking = booking;
+        this.previousStatus = previousStatus;
+        this.newStatus = booking.getStatus();
+        this.cityOrArea = booking.getRoom().getProperty().getCityOrArea();
+        this.monthlyRent = booking.getRoom().getMonthlyRent();
+    }
+
+    //getters
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public BookingStatus getPreviousStatus() {  //null for a new request
+        return previousStatus;
+    }
+
+    public BookingStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public String getCityOrArea() {
+        return cityOrArea;
+    }
+
+    public int getMonthlyRent() {
+        return monthlyRent;
+    }
+}
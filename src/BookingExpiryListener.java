@@ -0,0 +1,5 @@
+public interface BookingExpiryListener {
+
+    void onExpired(Booking booking);    //called after a REQUESTED booking has moved to EXPIRED
+}
+//callback used by BookingExpiryService to report expired requests
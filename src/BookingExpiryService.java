@@ -0,0 +1,123 @@
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+public class BookingExpiryService implements AutoCloseable {
+
+    /*
+    Expires REQUESTED bookings that nobody answered: after the TTL, or when the requested
+    start date arrives, whichever is first. Each pending request holds one timer in a
+    hierarchical timing wheel, so there is no periodic scan of all bookings.
+     */
+
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_LEVELS = 5;   //64^5 one-second ticks is about 34 years
+
+    private final Duration ttl;
+    private final TimingWheel<Booking> wheel;
+    private final Map<Long, TimingWheel.Timer<Booking>> timersByBookingId = new ConcurrentHashMap<>();
+    private final List<BookingExpiryListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Predicate<Booking> expireAction;   //supplied by BookingService, returns true if the booking expired
+    private ScheduledExecutorService ticker;
+
+    public BookingExpiryService(Duration ttl) {
+        this(ttl, DEFAULT_TICK);
+    }
+
+    public BookingExpiryService(Duration ttl, Duration tick) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("TTL must be positive.");
+        if (tick == null || tick.toMillis() <= 0) throw new IllegalArgumentException("Tick must be at least 1ms.");
+        this.ttl = ttl;
+        this.wheel = new TimingWheel<>(tick.toMillis(), WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    void bind(Predicate<Booking> expireAction) {
+        this.expireAction = expireAction;
+    }
+
+    public void addListener(BookingExpiryListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener must not be null.");
+        listeners.add(listener);
+    }
+
+    public void schedule(Booking booking) {
+        long deadline = Math.min(
+                System.currentTimeMillis() + ttl.toMillis(),
+                booking.getPeriod().getStart().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        TimingWheel.Timer<Booking> previous = timersByBookingId.put(booking.getBookingId(), wheel.schedule(booking, deadline));
+        if (previous != null) wheel.cancel(previous);
+    }
+
+    public void cancel(Booking booking) {   //the request was answered, its timer is no longer needed
+        TimingWheel.Timer<Booking> timer = timersByBookingId.remove(booking.getBookingId());
+        if (timer != null) wheel.cancel(timer);
+    }
+
+    /*
+    Fires every timer due by nowMillis and returns how many bookings expired.
+    Called by the background ticker, or directly by batch jobs.
+     */
+    public int advance(long nowMillis) {
+        int expired = 0;
+        for (TimingWheel.Timer<Booking> fired : wheel.advanceTo(nowMillis)) {
+            Booking booking = fired.getItem();
+            if (!timersByBookingId.remove(booking.getBookingId(), fired)) continue;   //rescheduled meanwhile, the newer timer decides
+
+            Predicate<Booking> action = expireAction;
+            if (action == null || !action.test(booking)) continue;
+            expired++;
+
+            for (BookingExpiryListener listener : listeners) {
+                try {
+                    listener.onExpired(booking);
+                } catch (RuntimeException e) {
+                    // one faulty listener must not stop the others or the ticker
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized void start() {  //advances the wheel once per tick on a daemon thread
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        long tick = wheel.getTickMillis();
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                // an exception would cancel the repeating task, skip this tick instead
+            }
+        }, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
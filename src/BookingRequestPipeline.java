@@ -0,0 +1,138 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BookingRequestPipeline implements AutoCloseable {
+
+    /*
+    Asynchronous intake for booking requests, for bursts such as the start of term.
+    Each request runs BookingService.requestBooking on its own virtual thread, so the
+    per-room lock is the only thing requests for the same room wait on.
+    At most `capacity` requests can be queued or running; beyond that submit() blocks
+    (backpressure) and trySubmit() fails fast.
+     */
+
+    private final BookingService bookingService;
+    private final Semaphore slots;
+    private final int capacity;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong turnedAway = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public BookingRequestPipeline(BookingService bookingService, int capacity) {
+        if (bookingService == null) throw new IllegalArgumentException("BookingService must not be null.");
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive.");
+        this.bookingService = bookingService;
+        this.capacity = capacity;
+        this.slots = new Semaphore(capacity);
+    }
+
+    /*
+    Queues a request, waiting for space if the pipeline is full.
+    The future completes with the booking, or exceptionally with the same exception
+    requestBooking would have thrown.
+     */
+    public CompletableFuture<Booking> submit(Student student, Room room, DateRange period) throws InterruptedException {
+        return submit(student, room, period, null);
+    }
+
+    public CompletableFuture<Booking> submit(Student student, Room room, DateRange period, String idempotencyKey)
+            throws InterruptedException {
+        ensureOpen();
+        slots.acquire();
+        return start(student, room, period, idempotencyKey);
+    }
+
+    /*
+    Queues a request if space frees up within the timeout, otherwise returns a future
+    that has already failed with RejectedExecutionException.
+     */
+    public CompletableFuture<Booking> trySubmit(Student student, Room room, DateRange period,
+                                                long timeout, TimeUnit unit) throws InterruptedException {
+        return trySubmit(student, room, period, null, timeout, unit);
+    }
+
+    public CompletableFuture<Booking> trySubmit(Student student, Room room, DateRange period, String idempotencyKey,
+                                                long timeout, TimeUnit unit) throws InterruptedException {
+        ensureOpen();
+        if (!slots.tryAcquire(timeout, unit)) {
+            turnedAway.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Booking pipeline is full."));
+        }
+        return start(student, room, period, idempotencyKey);
+    }
+
+    // a blank idempotency key is a plain request, see BookingService.requestBooking
+    private CompletableFuture<Booking> start(Student student, Room room, DateRange period, String idempotencyKey) {
+        CompletableFuture<Booking> result = new CompletableFuture<>();
+        try {
+            workers.execute(() -> {
+                try {
+                    result.complete(bookingService.requestBooking(student, room, period, idempotencyKey));
+                    completed.incrementAndGet();
+                } catch (Throwable e) {     //the caller's future must complete whatever goes wrong
+                    result.completeExceptionally(e);
+                    failed.incrementAndGet();
+                    if (e instanceof Error error) throw error;
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {   //closed between the check and the hand-off
+            slots.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Booking pipeline is closed.");
+    }
+
+    //stats
+
+    public int getInFlight() {
+        return capacity - slots.availablePermits();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getTurnedAwayCount() {
+        return turnedAway.get();
+    }
+
+    /*
+    Stops taking new requests and waits for the queued ones to finish.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting, queued requests are still being processed
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
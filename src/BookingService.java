@@ -1,14 +1,55 @@
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class BookingService {
 
+    private static final int LOCK_STRIPES = 256;
+    private static final int IDEMPOTENCY_CAPACITY = 100_000;
+    private static final Duration IDEMPOTENCY_WINDOW = Duration.ofHours(24);
+
     private final StudentRentalsSystem system;
+    private final StandingSearchService standingSearches;   // optional, told when a cancellation frees dates
+    private final BookingExpiryService expiry;              // optional, expires requests nobody answers
+    private final RoomLocks roomLocks = new RoomLocks(LOCK_STRIPES);  // request/accept/reject/cancel on one room run one at a time
+    private final IdempotencyTable<Booking> recentRequests =
+            new IdempotencyTable<>(IDEMPOTENCY_CAPACITY, IDEMPOTENCY_WINDOW, 64);   // idempotency key -> booking it created
+    private final OperationMetrics requestOp;
+    private final OperationMetrics acceptOp;
+    private final OperationMetrics rejectOp;
+    private final OperationMetrics cancelOp;
 
     public BookingService(StudentRentalsSystem system) {
+        this(system, null);
+    }
+
+    public BookingService(StudentRentalsSystem system, StandingSearchService standingSearches) {
+        this(system, standingSearches, null);
+    }
+
+    public BookingService(StudentRentalsSystem system, StandingSearchService standingSearches, BookingExpiryService expiry) {
         if (system == null) throw new IllegalArgumentException("System must not be null.");
         this.system = system;
+        this.standingSearches = standingSearches;
+        this.expiry = expiry;
+        if (expiry != null) expiry.bind(this::expireBooking);
+
+        MetricsRegistry metrics = system.getMetrics();
+        this.requestOp = metrics.operation("booking.requestBooking");
+        this.acceptOp = metrics.operation("booking.acceptBooking");
+        this.rejectOp = metrics.operation("booking.rejectBooking");
+        this.cancelOp = metrics.operation("booking.cancelBooking");
+        metrics.gauge("cache.idempotency.size", recentRequests::size);
+        metrics.gauge("cache.idempotency.hits", recentRequests::getHitCount);
+        metrics.gauge("cache.idempotency.misses", recentRequests::getMissCount);
+        if (expiry != null) metrics.gauge("booking.expiry.pending", expiry::getPendingCount);
+
+        scheduleLoadedRequests();   //requests already in the system, e.g. from loadBookings
     }
 
     /*
@@ -17,40 +58,84 @@ public class BookingService {
     Homeowner can accept or reject later.
      */
     public Booking requestBooking(Student student, Room room, DateRange period) {
+        return requestOp.timed(() -> doRequestBooking(student, room, period));
+    }
+
+    private Booking doRequestBooking(Student student, Room room, DateRange period) {
         if (student == null || room == null || period == null) {
             throw new IllegalArgumentException("Student, room, and period must not be null.");
         }
         if (!student.isActive()) {
             throw new IllegalStateException("Student account is deactivated.");
         }
-
-        // Must fit within the room’s overall availability window
-        if (!room.isWithinAvailability(period)) {
-            throw new IllegalArgumentException("Requested dates are outside the room's availability window.");
+        if (!system.isListed(room)) {
+            throw new IllegalStateException("This room is not currently listed.");
         }
 
-        // If there is already an ACCEPTED booking that overlaps, reject the request immediately
-        if (!isRoomFree(room, period)) {
-            throw new IllegalStateException("Room is not available for the requested dates.");
-        }
+        ReentrantLock lock = roomLocks.lockFor(room);
+        lock.lock();
+        try {
+            // Must fit within the room’s overall availability window
+            if (!room.isWithinAvailability(period)) {
+                throw new IllegalArgumentException("Requested dates are outside the room's availability window.");
+            }
+
+            // If there is already an ACCEPTED booking that overlaps, reject the request immediately
+            if (!isRoomFree(room, period)) {
+                throw new RoomUnavailableException();
+            }
+
+            long bookingId = system.generateId();
+            Booking booking = new Booking(bookingId, student, room, period);
 
-        long bookingId = system.generateId();
-        Booking booking = new Booking(bookingId, student, room, period);
+            // Save booking
+            system.addBooking(booking);
+
+            // Link booking to room (Room keeps list for quick checks)
+            room.addBooking(booking);
+
+            if (expiry != null) expiry.schedule(booking);
+            publish(DomainEventType.BOOKING_REQUESTED, booking, null);
+            return booking;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        // Save booking
-        system.addBooking(booking);
+    /*
+    Same as requestBooking, but safe to retry: a repeat with the same idempotency key
+    from the same student within the window returns the original booking without
+    re-running validation or creating another booking.
+    A blank key behaves like a plain requestBooking.
+     */
+    public Booking requestBooking(Student student, Room room, DateRange period, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return requestBooking(student, room, period);
+        if (student == null || room == null || period == null) {
+            throw new IllegalArgumentException("Student, room, and period must not be null.");
+        }
 
-        // Link booking to room (Room keeps list for quick checks)
-        room.addBooking(booking);
+        Booking booking = recentRequests.getOrCompute(student.getUserId() + ":" + idempotencyKey,
+                () -> requestBooking(student, room, period));
 
+        if (booking.getRoom() != room || !booking.getPeriod().equals(period)) {
+            throw new IllegalArgumentException("Idempotency key was already used for a different booking request.");
+        }
         return booking;
     }
 
+    public IdempotencyTable<Booking> getRecentRequests() {  //exposed for stats
+        return recentRequests;
+    }
+
     /*
     Homeowner accepts a booking request for a room they own.
     Re-checks overlap at accept time to prevent double booking.
      */
     public void acceptBooking(Homeowner homeowner, long bookingId) {
+        acceptOp.timed(() -> doAcceptBooking(homeowner, bookingId));
+    }
+
+    private void doAcceptBooking(Homeowner homeowner, long bookingId) {
         Booking booking = requireBooking(bookingId);
 
         if (homeowner == null) throw new IllegalArgumentException("Homeowner must not be null.");
@@ -61,26 +146,42 @@ public class BookingService {
 
         // Ensure this homeowner owns the property
         if (property.getOwner().getUserId() != homeowner.getUserId()) {
-            throw new SecurityException("You do not own the property for this booking.");
+            throw system.denied(homeowner, AuditAction.BOOKING_ACCEPT, bookingId, "You do not own the property for this booking.");
         }
 
-        if (booking.getStatus() != BookingStatus.REQUESTED) {
-            throw new IllegalStateException("Only REQUESTED bookings can be accepted.");
-        }
+        // status check, overlap check and accept must happen as one step per room
+        ReentrantLock lock = roomLocks.lockFor(room);
+        lock.lock();
+        try {
+            if (booking.getStatus() != BookingStatus.REQUESTED) {
+                throw new IllegalStateException("Only REQUESTED bookings can be accepted.");
+            }
 
-        //re-check room availability against ACCEPTED bookings
-        if (!isRoomFree(room, booking.getPeriod())) {
-            booking.reject(); // safe fallback to avoid double booking
-            throw new IllegalStateException("Cannot accept: room conflicts with an existing accepted booking.");
-        }
+            if (expiry != null) expiry.cancel(booking);  //answered either way from here
 
-        booking.accept();
+            //re-check room availability against ACCEPTED bookings
+            if (!isRoomFree(room, booking.getPeriod())) {
+                booking.reject(); // safe fallback to avoid double booking
+                publish(DomainEventType.BOOKING_REJECTED, booking, BookingStatus.REQUESTED);
+                throw new IllegalStateException("Cannot accept: room conflicts with an existing accepted booking.");
+            }
+
+            booking.accept();
+            publish(DomainEventType.BOOKING_ACCEPTED, booking, BookingStatus.REQUESTED);
+            system.audit(AuditEntry.allowed(homeowner, AuditAction.BOOKING_ACCEPT, bookingId, ""));
+        } finally {
+            lock.unlock();
+        }
     }
 
     /*
     Homeowner rejects a booking request
      */
     public void rejectBooking(Homeowner homeowner, long bookingId) {
+        rejectOp.timed(() -> doRejectBooking(homeowner, bookingId));
+    }
+
+    private void doRejectBooking(Homeowner homeowner, long bookingId) {
         Booking booking = requireBooking(bookingId);
 
         if (homeowner == null) throw new IllegalArgumentException("Homeowner must not be null.");
@@ -89,14 +190,235 @@ public class BookingService {
         Property property = room.getProperty();
 
         if (property.getOwner().getUserId() != homeowner.getUserId()) { // ensure this homeowner owns the property
-            throw new SecurityException("You do not own the property for this booking.");
+            throw system.denied(homeowner, AuditAction.BOOKING_REJECT, bookingId, "You do not own the property for this booking.");
+        }
+
+        ReentrantLock lock = roomLocks.lockFor(room);
+        lock.lock();
+        try {
+            if (booking.getStatus() != BookingStatus.REQUESTED) {
+                throw new IllegalStateException("Only REQUESTED bookings can be rejected.");
+            }
+
+            booking.reject();
+            if (expiry != null) expiry.cancel(booking);
+            publish(DomainEventType.BOOKING_REJECTED, booking, BookingStatus.REQUESTED);
+            system.audit(AuditEntry.allowed(homeowner, AuditAction.BOOKING_REJECT, bookingId, ""));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+    Homeowner accepts many requests in one go.
+    Requests for the same room that overlap each other (or an already accepted booking)
+    are settled by the policy: winners are accepted, losers are rejected.
+    Every booking is validated before anything changes, so a bad ID or a booking the
+    homeowner does not own leaves the whole batch untouched.
+     */
+    public BatchAcceptResult acceptBookings(Homeowner homeowner, Collection<Long> bookingIds, BatchAcceptPolicy policy) {
+        if (homeowner == null) throw new IllegalArgumentException("Homeowner must not be null.");
+        if (bookingIds == null || policy == null) throw new IllegalArgumentException("Booking IDs and policy must not be null.");
+
+        Map<Room, List<Booking>> byRoom = new LinkedHashMap<>();
+        for (long bookingId : bookingIds) {
+            Booking booking = requireBooking(bookingId);
+            List<Booking> forRoom = byRoom.computeIfAbsent(booking.getRoom(), r -> new ArrayList<>());
+            if (!forRoom.contains(booking)) forRoom.add(booking);
+        }
+        return acceptBatch(homeowner, byRoom, policy);
+    }
+
+    /*
+    Homeowner accepts the best non-overlapping set of pending requests for each of the given rooms.
+     */
+    public BatchAcceptResult acceptBestPerRoom(Homeowner homeowner, Collection<Room> rooms, BatchAcceptPolicy policy) {
+        if (homeowner == null) throw new IllegalArgumentException("Homeowner must not be null.");
+        if (rooms == null || policy == null) throw new IllegalArgumentException("Rooms and policy must not be null.");
+
+        Map<Room, List<Booking>> byRoom = new LinkedHashMap<>();
+        for (Room room : rooms) {
+            byRoom.put(room, null);     //filled in under the lock so nothing requested meanwhile is missed
         }
+        return acceptBatch(homeowner, byRoom, policy);
+    }
+
+    private BatchAcceptResult acceptBatch(Homeowner homeowner, Map<Room, List<Booking>> byRoom, BatchAcceptPolicy policy) {
+        if (!homeowner.isActive()) throw new IllegalStateException("Homeowner account is deactivated.");
 
-        if (booking.getStatus() != BookingStatus.REQUESTED) {
-            throw new IllegalStateException("Only REQUESTED bookings can be rejected.");
+        for (Room room : byRoom.keySet()) {
+            if (room.getProperty().getOwner().getUserId() != homeowner.getUserId()) {
+                throw system.denied(homeowner, AuditAction.BOOKING_ACCEPT, room.getRoomId(),
+                        "You do not own the property for room " + room.getRoomId() + ".");
+            }
         }
 
-        booking.reject();
+        List<Booking> accepted = new ArrayList<>();
+        List<Booking> rejected = new ArrayList<>();
+
+        List<ReentrantLock> held = roomLocks.lockAll(byRoom.keySet());
+        try {
+            // validation pass: nothing is changed unless every booking is still pending
+            for (Map.Entry<Room, List<Booking>> entry : byRoom.entrySet()) {
+                if (entry.getValue() == null) {
+                    entry.setValue(pendingBookings(entry.getKey()));
+                    continue;
+                }
+                for (Booking booking : entry.getValue()) {
+                    if (booking.getStatus() != BookingStatus.REQUESTED) {
+                        throw new IllegalStateException("Only REQUESTED bookings can be accepted: " + booking.getBookingId());
+                    }
+                }
+            }
+
+            // one sweep per room in policy order; the accepted index already holds earlier winners
+            for (Map.Entry<Room, List<Booking>> entry : byRoom.entrySet()) {
+                Room room = entry.getKey();
+                List<Booking> candidates = entry.getValue();
+                candidates.sort(policy.priority());
+
+                for (Booking booking : candidates) {
+                    if (expiry != null) expiry.cancel(booking);
+                    if (isRoomFree(room, booking.getPeriod())) {
+                        booking.accept();
+                        accepted.add(booking);
+                        publish(DomainEventType.BOOKING_ACCEPTED, booking, BookingStatus.REQUESTED);
+                        system.audit(AuditEntry.allowed(homeowner, AuditAction.BOOKING_ACCEPT, booking.getBookingId(), "batch"));
+                    } else {
+                        booking.reject();
+                        rejected.add(booking);
+                        publish(DomainEventType.BOOKING_REJECTED, booking, BookingStatus.REQUESTED);
+                        system.audit(AuditEntry.allowed(homeowner, AuditAction.BOOKING_REJECT, booking.getBookingId(), "batch"));
+                    }
+                }
+            }
+        } finally {
+            roomLocks.unlockAll(held);
+        }
+
+        return new BatchAcceptResult(accepted, rejected);
+    }
+
+    /*
+    Gives every REQUESTED booking in the system an expiry timer. Bookings added with
+    StudentRentalsSystem.loadBookings after this service was created have none until this
+    is called. Returns how many were scheduled; 0 when no expiry service is configured.
+     */
+    public int schedulePendingExpiries() {
+        return scheduleLoadedRequests();
+    }
+
+    private int scheduleLoadedRequests() {
+        if (expiry == null) return 0;
+
+        int scheduled = 0;
+        for (Booking booking : system.getAllBookings()) {
+            if (booking.getStatus() != BookingStatus.REQUESTED) continue;
+            expiry.schedule(booking);   //replaces any timer it already has
+            scheduled++;
+        }
+        return scheduled;
+    }
+
+    /*
+    Called by the expiry service when a request's timer fires.
+    Only a booking still REQUESTED is expired; anything answered meanwhile is left alone.
+     */
+    private boolean expireBooking(Booking booking) {
+        ReentrantLock lock = roomLocks.lockFor(booking.getRoom());
+        lock.lock();
+        try {
+            if (booking.getStatus() != BookingStatus.REQUESTED) return false;
+            booking.expire();
+            publish(DomainEventType.BOOKING_EXPIRED, booking, BookingStatus.REQUESTED);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+    Puts the user's pending requests on hold when their account is deactivated: a student's
+    own requests, or the requests on a homeowner's rooms. Suspended requests cannot be
+    accepted and their expiry timers are stopped. Returns how many were suspended.
+     */
+    public int suspendPendingBookings(User user) {
+        if (user == null) throw new IllegalArgumentException("User must not be null.");
+
+        int suspended = 0;
+        for (Booking booking : bookingsInvolving(user)) {
+            ReentrantLock lock = roomLocks.lockFor(booking.getRoom());
+            lock.lock();
+            try {
+                if (booking.getStatus() != BookingStatus.REQUESTED) continue;
+                booking.suspend();
+                if (expiry != null) expiry.cancel(booking);
+                publish(DomainEventType.BOOKING_SUSPENDED, booking, BookingStatus.REQUESTED);
+                suspended++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return suspended;
+    }
+
+    /*
+    Puts suspended requests back to REQUESTED once both the student and the homeowner are
+    active again, with a fresh expiry timer (which fires at once if the stay has started).
+    Returns how many were resumed.
+     */
+    public int resumeSuspendedBookings(User user) {
+        if (user == null) throw new IllegalArgumentException("User must not be null.");
+
+        int resumed = 0;
+        for (Booking booking : bookingsInvolving(user)) {
+            ReentrantLock lock = roomLocks.lockFor(booking.getRoom());
+            lock.lock();
+            try {
+                if (booking.getStatus() != BookingStatus.SUSPENDED) continue;
+                if (!booking.getStudent().isActive() || !booking.getRoom().getProperty().getOwner().isActive()) continue;
+                booking.resume();
+                if (expiry != null) expiry.schedule(booking);
+                publish(DomainEventType.BOOKING_RESUMED, booking, BookingStatus.SUSPENDED);
+                resumed++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return resumed;
+    }
+
+    // a student's own bookings, or the bookings on a homeowner's current rooms, without a full scan
+    private List<Booking> bookingsInvolving(User user) {
+        if (user instanceof Student) return system.getBookingsForStudent(user.getUserId());
+        if (!(user instanceof Homeowner)) return List.of();
+
+        List<Booking> results = new ArrayList<>();
+        for (Property property : system.getPropertiesByOwner(user.getUserId())) {
+            for (Room room : property.getRooms()) {
+                ReentrantLock lock = roomLocks.lockFor(room);
+                lock.lock();
+                try {
+                    results.addAll(room.getBookings());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return results;
+    }
+
+    // published under the room lock so each room's events reach subscribers in the order they happened
+    private void publish(DomainEventType type, Booking booking, BookingStatus previousStatus) {
+        system.getEventBus().publish(new BookingEvent(type, booking, previousStatus));
+    }
+
+    private List<Booking> pendingBookings(Room room) {
+        List<Booking> pending = new ArrayList<>();
+        for (Booking b : room.getBookings()) {
+            if (b.getStatus() == BookingStatus.REQUESTED) pending.add(b);
+        }
+        return pending;
     }
 
     /*
@@ -104,66 +426,147 @@ public class BookingService {
     penalties can be applied upon system extension
      */
     public void cancelBooking(Student student, long bookingId) {
+        cancelOp.timed(() -> doCancelBooking(student, bookingId));
+    }
+
+    private void doCancelBooking(Student student, long bookingId) {
         Booking booking = requireBooking(bookingId);
 
         if (student == null) throw new IllegalArgumentException("Student must not be null.");
         if (booking.getStudent().getUserId() != student.getUserId()) {
-            throw new SecurityException("You can only cancel your own bookings.");
+            throw system.denied(student, AuditAction.BOOKING_CANCEL, bookingId, "You can only cancel your own bookings.");
         }
 
-        if (booking.getStatus() == BookingStatus.CANCELLED) return;
+        boolean wasAccepted;
+        ReentrantLock lock = roomLocks.lockFor(booking.getRoom());
+        lock.lock();
+        try {
+            BookingStatus previous = booking.getStatus();
+            if (previous == BookingStatus.CANCELLED) return;
+
+            wasAccepted = previous == BookingStatus.ACCEPTED;
+            booking.cancel();
+            if (expiry != null) expiry.cancel(booking);
+            publish(DomainEventType.BOOKING_CANCELLED, booking, previous);
+            system.audit(AuditEntry.allowed(student, AuditAction.BOOKING_CANCEL, bookingId, "was " + previous));
+        } finally {
+            lock.unlock();
+        }
 
-        booking.cancel();
+        if (wasAccepted && standingSearches != null) standingSearches.acceptedBookingCancelled(booking);
     }
 
     /**
     Checks if a room is free for the given period considering ACCEPTED bookings only.
     Requested bookings do not block availability until accepted.
+    Answered from the room's accepted-booking index, so history does not slow it down.
      */
     public boolean isRoomFree(Room room, DateRange requested) {
-        for (Booking existing : room.getBookings()) {
-            if (existing.getStatus() != BookingStatus.ACCEPTED) continue;
-            if (existing.getPeriod().overlaps(requested)) {
-                return false;
+        return room.isFreeFor(requested);
+    }
+
+    /*
+    Lists the ACCEPTED bookings that overlap the given period, earliest first.
+     */
+    public List<Booking> findConflicts(Room room, DateRange requested) {
+        if (room == null || requested == null) throw new IllegalArgumentException("Room and period must not be null.");
+        return room.getConflicts(requested);
+    }
+
+    /*
+    Moves finished bookings to the system's archive: rejected, cancelled and expired ones,
+    and accepted ones that ended on or before the cutoff, which may not be later than today.
+    They are written to disk first and then dropped from the room and system maps, so
+    conflict checks and memory only deal with live bookings. Returns how many bookings were archived.
+     */
+    public int archiveFinishedBookings(LocalDate cutoff) {
+        if (cutoff == null) throw new IllegalArgumentException("Cutoff must not be null.");
+        if (cutoff.isAfter(LocalDate.now())) {  //a stay that has not ended yet is still live
+            throw new IllegalArgumentException("Cutoff must not be after today.");
+        }
+        BookingArchive archive = system.getBookingArchive();
+        if (archive == null) throw new IllegalStateException("No booking archive is configured.");
+
+        Map<Room, List<Booking>> byRoom = new LinkedHashMap<>();
+        for (Booking b : system.getAllBookings()) {
+            if (isArchivable(b, cutoff)) byRoom.computeIfAbsent(b.getRoom(), r -> new ArrayList<>()).add(b);
+        }
+
+        int archived = 0;
+        for (Map.Entry<Room, List<Booking>> entry : byRoom.entrySet()) {
+            Room room = entry.getKey();
+            ReentrantLock lock = roomLocks.lockFor(room);
+            lock.lock();
+            try {
+                List<Booking> finished = new ArrayList<>();
+                List<ArchivedBooking> records = new ArrayList<>();
+                for (Booking b : entry.getValue()) {
+                    if (!isArchivable(b, cutoff)) continue;     //changed since the scan
+                    finished.add(b);
+                    records.add(ArchivedBooking.of(b));
+                }
+
+                archive.append(records);
+                room.removeBookings(finished);
+                for (Booking b : finished) {
+                    system.removeBooking(b);
+                }
+                archived += finished.size();
+            } finally {
+                lock.unlock();
             }
         }
-        return true;
+        return archived;
+    }
+
+    private boolean isArchivable(Booking booking, LocalDate cutoff) {
+        return switch (booking.getStatus()) {
+            case REJECTED, CANCELLED, EXPIRED -> true;
+            case ACCEPTED -> !booking.getPeriod().getEnd().isAfter(cutoff);
+            default -> false;
+        };
+    }
+
+    /*
+    Student history from the archive (bookings no longer held in memory)
+     */
+    public List<ArchivedBooking> getArchivedBookingsForStudent(Student student) {
+        BookingArchive archive = system.getBookingArchive();
+        if (archive == null) return List.of();
+        return archive.findByStudent(student.getUserId());
+    }
+
+    public List<ArchivedBooking> getArchivedBookingsForRoom(Room room) {
+        BookingArchive archive = system.getBookingArchive();
+        if (archive == null) return List.of();
+        return archive.findByRoom(room.getRoomId());
     }
 
     /*
     Student view their bookings
      */
     public List<Booking> getBookingsForStudent(Student student) {
-        List<Booking> results = new ArrayList<>();
-        for (Booking b : system.getAllBookings()) {
-            if (b.getStudent().getUserId() == student.getUserId()) {
-                results.add(b);
-            }
-        }
-        return results;
+        return system.getBookingsForStudent(student.getUserId());
     }
 
     /*
     Homeowner view bookings for rooms they own.
      */
     public List<Booking> getBookingsForHomeowner(Homeowner homeowner) {
-        List<Booking> results = new ArrayList<>();
-        for (Booking b : system.getAllBookings()) {
-            Property p = b.getRoom().getProperty();
-            if (p.getOwner().getUserId() == homeowner.getUserId()) {
-                results.add(b);
-            }
-        }
-        return results;
+        return system.getBookingsForOwner(homeowner.getUserId());
     }
 
     /*
     Can't review if booking hasn't ended
      */
     public boolean hasBookingEnded(Booking booking) {
+        return hasPeriodEnded(booking.getPeriod());
+    }
+
+    public boolean hasPeriodEnded(DateRange period) {
         LocalDate today = LocalDate.now();
         // Using [start, end): booking ended if end is on/before today
-        return !booking.getPeriod().getEnd().isAfter(today);
+        return !period.getEnd().isAfter(today);
     }
 
     private Booking requireBooking(long bookingId) {
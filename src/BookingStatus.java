@@ -2,6 +2,8 @@ public enum BookingStatus {
     REQUESTED,
     ACCEPTED,
     REJECTED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED,    //request was not answered in time
+    SUSPENDED   //request on hold while the student or homeowner account is deactivated
 }
 //preset values for booking status
\ No newline at end of file
@@ -0,0 +1,129 @@
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+public class BookingSuggestionService {
+
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(50);
+    public static final int DEFAULT_RENT_BAND = 100;   //± pounds per month
+    public static final int DEFAULT_MAX_ROOMS = 5;
+
+    private final StudentRentalsSystem system;
+
+    public BookingSuggestionService(StudentRentalsSystem system) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        this.system = system;
+    }
+
+    public BookingSuggestions suggest(Room room, DateRange period) {
+        return suggest(room, period, DEFAULT_RENT_BAND, DEFAULT_MAX_ROOMS, DEFAULT_BUDGET);
+    }
+
+    /*
+    Suggestions for a request that could not be booked:
+    the nearest free window of the same length in the same room (from its day bitmap), and
+    rooms in the same area with the same type whose rent is within ±rentBand that are free
+    for the requested dates (from the city/type/rent index, closest rent first).
+    Stops early and marks the result incomplete once the budget is spent.
+     */
+    public BookingSuggestions suggest(Room room, DateRange period, int rentBand, int maxRooms, Duration budget) {
+        if (room == null || period == null) throw new IllegalArgumentException("Room and period must not be null.");
+        if (rentBand < 0 || maxRooms < 0) throw new IllegalArgumentException("Rent band and max rooms must not be negative.");
+        if (budget == null) throw new IllegalArgumentException("Budget must not be null.");
+
+        long deadline = System.nanoTime() + budget.toNanos();
+
+        DateRange alternative = nearestFreeWindow(room, period);
+
+        List<Room> similar = new ArrayList<>();
+        boolean complete = findSimilarRooms(room, period, rentBand, maxRooms, deadline, similar);
+
+        return new BookingSuggestions(room, period, alternative, similar, complete);
+    }
+
+    private DateRange nearestFreeWindow(Room room, DateRange period) {
+        int nights = (int) (period.getEndEpochDay() - period.getStartEpochDay());
+        AvailabilityCalendar calendar = room.getCalendar();
+
+        DateRange later;
+        DateRange earlier;
+        if (calendar.covers(period)) {
+            later = calendar.findFreeWindowFrom(period.getStart(), nights);
+            earlier = calendar.findFreeWindowBefore(period.getEnd(), nights);
+        } else {    //past the bitmap's horizon, walk the accepted bookings instead
+            later = freeWindowAfter(room, period, nights);
+            earlier = freeWindowBefore(room, period, nights);
+        }
+        if (earlier != null && earlier.getStart().isBefore(LocalDate.now())) earlier = null;  //no point offering the past
+
+        if (later == null) return earlier;
+        if (earlier == null) return later;
+
+        long laterGap = later.getStartEpochDay() - period.getStartEpochDay();
+        long earlierGap = period.getStartEpochDay() - earlier.getStartEpochDay();
+        return earlierGap < laterGap ? earlier : later;
+    }
+
+    // each step jumps past the last accepted booking in the way, so it visits every booking at most once
+    private DateRange freeWindowAfter(Room room, DateRange period, int nights) {
+        LocalDate start = period.getStart();
+        while (true) {
+            DateRange candidate = new DateRange(start, start.plusDays(nights));
+            if (!room.isWithinAvailability(candidate)) return null;
+            List<Booking> conflicts = room.getConflicts(candidate);
+            if (conflicts.isEmpty()) return candidate;
+            start = conflicts.get(conflicts.size() - 1).getPeriod().getEnd();
+        }
+    }
+
+    private DateRange freeWindowBefore(Room room, DateRange period, int nights) {
+        LocalDate end = period.getEnd();
+        while (true) {
+            DateRange candidate = new DateRange(end.minusDays(nights), end);
+            if (!room.isWithinAvailability(candidate)) return null;
+            List<Booking> conflicts = room.getConflicts(candidate);
+            if (conflicts.isEmpty()) return candidate;
+            end = conflicts.get(0).getPeriod().getStart();
+        }
+    }
+
+    // walks outwards from the room's rent in both directions so the closest prices are offered first
+    private boolean findSimilarRooms(Room room, DateRange period, int rentBand, int maxRooms,
+                                     long deadline, List<Room> results) {
+        int rent = room.getMonthlyRent();
+        NavigableMap<Integer, Set<Room>> band = system.getRoomsByCityTypeAndRent(
+                room.getProperty().getCityOrArea(), room.getType(),
+                Math.max(0, rent - rentBand), rent + rentBand);
+
+        Iterator<Map.Entry<Integer, Set<Room>>> up = band.tailMap(rent, true).entrySet().iterator();
+        Iterator<Map.Entry<Integer, Set<Room>>> down = band.headMap(rent, false).descendingMap().entrySet().iterator();
+        Map.Entry<Integer, Set<Room>> nextUp = up.hasNext() ? up.next() : null;
+        Map.Entry<Integer, Set<Room>> nextDown = down.hasNext() ? down.next() : null;
+
+        while (results.size() < maxRooms && (nextUp != null || nextDown != null)) {
+            if (System.nanoTime() > deadline) return false;
+
+            Set<Room> rooms;
+            if (nextDown == null || (nextUp != null && nextUp.getKey() - rent <= rent - nextDown.getKey())) {
+                rooms = nextUp.getValue();
+                nextUp = up.hasNext() ? up.next() : null;
+            } else {
+                rooms = nextDown.getValue();
+                nextDown = down.hasNext() ? down.next() : null;
+            }
+
+            for (Room candidate : rooms) {
+                if (candidate == room) continue;
+                if (!candidate.isAvailableFor(period)) continue;
+                results.add(candidate);
+                if (results.size() == maxRooms) break;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.Collections;
+import java.util.List;
+
+public class BookingSuggestions {
+
+    private final Room room;
+    private final DateRange requestedPeriod;
+    private final DateRange alternativePeriod;  //nearest free window of the same length in the same room, or null
+    private final List<Room> similarRooms;      //same area and type, rent within the band, free for the requested period
+    private final boolean complete;             //false if the latency budget ran out before the search finished
+
+    public BookingSuggestions(Room room,
+                              DateRange requestedPeriod,
+                              DateRange alternativePeriod,
+                              List<Room> similarRooms,
+                              boolean complete) {
+        this.room = room;
+        this.requestedPeriod = requestedPeriod;
+        this.alternativePeriod = alternativePeriod;
+        this.similarRooms = Collections.unmodifiableList(similarRooms);
+        this.complete = complete;
+    }
+
+    //getters
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public DateRange getRequestedPeriod() {
+        return requestedPeriod;
+    }
+
+    public DateRange getAlternativePeriod() {
+        return alternativePeriod;
+    }
+
+    public List<Room> getSimilarRooms() {
+        return similarRooms;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean isEmpty() {
+        return alternativePeriod == null && similarRooms.isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class CityLeaderboard {
+
+    /*
+    Properties in one city ranked by score, highest first, ties broken by lower property ID.
+    Backed by a treap (a binary search tree kept balanced by random heap priorities) where
+    every node also stores the size of its subtree. Insert, remove and rank are O(log n);
+    the top n are an in-order walk that stops after n nodes.
+     */
+
+    private Node root;
+    private long seed = 0x9E3779B97F4A7C15L;    //xorshift state for node priorities
+
+    public void insert(Property property, double score) {
+        root = insert(root, new Node(property, score, nextPriority()));
+    }
+
+    public void remove(long propertyId, double score) {
+        root = remove(root, score, propertyId);
+    }
+
+    public List<Property> top(int n) {
+        List<Property> results = new ArrayList<>(Math.min(n, size()));
+        collect(root, n, results);
+        return results;
+    }
+
+    // 1-based position of the entry with this score and ID, or 0 if it is not on the board
+    public int rankOf(long propertyId, double score) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(score, propertyId, node);
+            if (c == 0) return rank + size(node.left) + 1;
+            if (c < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    //treap operations
+
+    private Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (compare(added.score, added.property.getPropertyId(), node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, double score, long propertyId) {
+        if (node == null) return null;
+        int c = compare(score, propertyId, node);
+        if (c < 0) {
+            node.left = remove(node.left, score, propertyId);
+        } else if (c > 0) {
+            node.right = remove(node.right, score, propertyId);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            // rotate the higher-priority child up and keep sinking the node until it is a leaf
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = remove(node.right, score, propertyId);
+            } else {
+                node = rotateLeft(node);
+                node.left = remove(node.left, score, propertyId);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static void collect(Node node, int n, List<Property> into) {
+        if (node == null || into.size() >= n) return;
+        collect(node.left, n, into);
+        if (into.size() < n) into.add(node.property);
+        collect(node.right, n, into);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // negative when (score, id) ranks above the node: higher score first, then lower ID
+    private static int compare(double score, long propertyId, Node node) {
+        int c = Double.compare(node.score, score);
+        return c != 0 ? c : Long.compare(propertyId, node.property.getPropertyId());
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) (seed >>> 32);
+    }
+
+    private static final class Node {
+        private final Property property;
+        private final double score;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Property property, double score, int priority) {
+            this.property = property;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class DatasetGenerator {
+
+    /*
+    Builds a synthetic but realistically shaped dataset straight into a StudentRentalsSystem,
+    for load tests, benchmarks and trying the CLI at scale. The same seed, anchor date and
+    size always give the same data (IDs included, on a fresh system).
+
+    - City sizes follow a Zipf curve, so a few cities hold most students and rooms.
+    - Rents start from a per-city level, vary by property (log-normal) and by room type.
+    - Rooms are let over two academic years around the anchor date. Booking periods cluster
+      on the academic calendar: whole years from September, single terms and summer lets.
+    - Students prefer the cheaper of two rooms they look at. Stays that have started are
+      mostly accepted, upcoming ones are a mix of pending, accepted and rejected, and about
+      a third of finished stays get a review scored around the property's own quality.
+
+    Everything goes in through the system's add and bulk-load methods, not the services,
+    so no events, audit entries or expiry timers are produced.
+     */
+
+    private static final String[] CITIES = {
+            "London", "Manchester", "Birmingham", "Leeds", "Glasgow", "Nottingham", "Bristol",
+            "Sheffield", "Edinburgh", "Liverpool", "Cardiff", "Newcastle", "Leicester", "Coventry",
+            "Southampton", "Exeter", "York", "Bath", "Swansea", "Aberystwyth"
+    };
+    private static final int[] BASE_RENT = {   //typical single room per month, same order as CITIES
+            950, 620, 560, 560, 600, 520, 700, 500, 720, 520, 540, 530, 500, 560,
+            580, 620, 600, 680, 480, 430
+    };
+    private static final double CITY_SKEW = 1.1;     //Zipf exponent for city sizes
+
+    private static final String[] FIRST_NAMES = {
+            "Amelia", "Oliver", "Isla", "George", "Ava", "Noah", "Mia", "Arthur", "Ivy", "Leo",
+            "Freya", "Oscar", "Lily", "Harry", "Grace", "Jack", "Sophia", "Charlie", "Ella", "Rhys"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies", "Evans",
+            "Thomas", "Roberts", "Walker", "Wright", "Hughes", "Patel", "Khan", "Morgan", "Price"
+    };
+    private static final String[] STREETS = {
+            "High Street", "Station Road", "Church Lane", "Park Road", "Victoria Road", "Mill Lane",
+            "Queen Street", "King Street", "College Road", "Albany Road", "Cathays Terrace", "Crwys Road"
+    };
+
+    private static final int STUDENTS_PER_HOMEOWNER = 15;
+    private static final double MEAN_REQUESTS_PER_STUDENT = 2.5;
+    private static final double REVIEW_RATE = 0.35;
+    private static final int BOOKING_BATCH = 100_000;
+
+    private final long seed;
+    private final LocalDate anchor;     //"today" for the generated data
+
+    public DatasetGenerator(long seed, LocalDate anchor) {
+        if (anchor == null) throw new IllegalArgumentException("Anchor date must not be null.");
+        this.seed = seed;
+        this.anchor = anchor;
+    }
+
+    /*
+    Generates `students` students and everything scaled from them: one homeowner per 15
+    students, 1-4 properties each, 2-7 rooms per property, about 2.5 booking requests per
+    student and the resulting reviews.
+     */
+    public GeneratedDataset generate(StudentRentalsSystem system, int students) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        if (students <= 0) throw new IllegalArgumentException("Student count must be positive.");
+
+        long started = System.nanoTime();
+        SplittableRandom rnd = new SplittableRandom(seed);
+        double[] cityWeights = zipfCumulative(CITIES.length, CITY_SKEW);
+
+        // two academic years: the one before the anchor's and the anchor's own
+        int year = anchor.getMonthValue() >= 9 ? anchor.getYear() : anchor.getYear() - 1;
+        LocalDate letFrom = LocalDate.of(year - 1, Month.SEPTEMBER, 1);
+        LocalDate letTo = LocalDate.of(year + 1, Month.SEPTEMBER, 1);
+        DateRange letting = new DateRange(letFrom, letTo);
+
+        //users
+        int adminCount = Math.max(1, students / 100_000);
+        long[] adminIds = new long[adminCount];
+        for (int i = 0; i < adminCount; i++) {
+            Admin admin = new Admin(system.generateId(), "Admin " + (i + 1), "admin" + (i + 1) + "@studentrentals.example");
+            system.addUser(admin);
+            adminIds[i] = admin.getUserId();
+        }
+
+        int homeownerCount = Math.max(1, students / STUDENTS_PER_HOMEOWNER);
+        long[] homeownerIds = new long[homeownerCount];
+        Homeowner[] homeowners = new Homeowner[homeownerCount];
+        for (int i = 0; i < homeownerCount; i++) {
+            Homeowner h = new Homeowner(system.generateId(), name(rnd), "owner" + i + "@landlords.example");
+            system.addUser(h);
+            homeowners[i] = h;
+            homeownerIds[i] = h.getUserId();
+        }
+
+        long[] studentIds = new long[students];
+        Student[] studentArray = new Student[students];
+        int[] studentCity = new int[students];
+        for (int i = 0; i < students; i++) {
+            int city = pick(cityWeights, rnd);
+            Student s = new Student(system.generateId(), name(rnd), "s" + i + "@students.example.ac.uk",
+                    CITIES[city] + " University", "S" + (1_000_000 + i), rnd.nextInt(10) != 0);
+            system.addUser(s);
+            studentArray[i] = s;
+            studentIds[i] = s.getUserId();
+            studentCity[i] = city;
+        }
+
+        //listings: each homeowner lets in one city
+        List<List<Room>> roomsByCity = new ArrayList<>();
+        for (int c = 0; c < CITIES.length; c++) roomsByCity.add(new ArrayList<>());
+        List<Long> propertyIdList = new ArrayList<>();
+        List<Long> roomIdList = new ArrayList<>();
+        Map<Long, Double> qualityByProperty = new HashMap<>();    //mean rating its reviews scatter around
+
+        for (Homeowner owner : homeowners) {
+            int city = pick(cityWeights, rnd);
+            int properties = 1 + (int) Math.min(3, Math.floor(-Math.log(1 - rnd.nextDouble()) * 0.9));
+            for (int p = 0; p < properties; p++) {
+                Property property = new Property(system.generateId(), owner,
+                        (1 + rnd.nextInt(240)) + " " + STREETS[rnd.nextInt(STREETS.length)], CITIES[city],
+                        "Shared student house in " + CITIES[city]);
+                system.addProperty(property);
+                propertyIdList.add(property.getPropertyId());
+                qualityByProperty.put(property.getPropertyId(), 2.6 + rnd.nextDouble() * 2.2);
+
+                double level = BASE_RENT[city] * Math.exp(rnd.nextGaussian() * 0.15);
+                int rooms = 2 + rnd.nextInt(6);
+                for (int r = 0; r < rooms; r++) {
+                    RoomType type = rnd.nextInt(10) < 7 ? RoomType.SINGLE : RoomType.DOUBLE;
+                    double rent = level * (type == RoomType.DOUBLE ? 1.25 : 1.0) * (0.95 + rnd.nextDouble() * 0.1);
+                    Room room = new Room(system.generateId(), property, type, 5 * (int) Math.round(rent / 5),
+                            type == RoomType.DOUBLE ? "Double room" : "Single room", amenities(rnd, type), letting);
+                    property.addRoom(room);
+                    system.addRoom(room);
+                    roomsByCity.get(city).add(room);
+                    roomIdList.add(room.getRoomId());
+                }
+            }
+        }
+
+        //bookings, in batches so the pending list stays small at millions of students
+        int[] byStatus = new int[BookingStatus.values().length];
+        List<Booking> batch = new ArrayList<>();
+        Map<Room, AcceptedBookingIndex> batchAccepted = new HashMap<>();   //accepted stays not loaded into their rooms yet
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            List<Room> cityRooms = roomsByCity.get(studentCity[i]);
+            if (cityRooms.isEmpty()) cityRooms = nearestNonEmpty(roomsByCity, studentCity[i]);
+
+            int requests = poisson(rnd, MEAN_REQUESTS_PER_STUDENT);
+            for (int r = 0; r < requests; r++) {
+                Room a = cityRooms.get(rnd.nextInt(cityRooms.size()));
+                Room b = cityRooms.get(rnd.nextInt(cityRooms.size()));
+                Room room = a.getMonthlyRent() <= b.getMonthlyRent() ? a : b;     //cheaper of two looks
+
+                DateRange period = period(rnd, rnd.nextBoolean() ? year - 1 : year);
+                LocalDate created = period.getStart().minusDays(14 + rnd.nextInt(107));
+                if (created.isAfter(anchor)) created = anchor.minusDays(rnd.nextInt(14));
+
+                AcceptedBookingIndex pending = batchAccepted.computeIfAbsent(room, k -> new AcceptedBookingIndex());
+                BookingStatus status = settle(room, period, pending, rnd);
+                Booking booking = new Booking(system.generateId(), studentArray[i], room, period, created, status);
+                if (status == BookingStatus.ACCEPTED) pending.add(booking);
+                byStatus[booking.getStatus().ordinal()]++;
+                batch.add(booking);
+
+                if (booking.getStatus() == BookingStatus.ACCEPTED && period.getEnd().isBefore(anchor)
+                        && rnd.nextDouble() < REVIEW_RATE) {
+                    reviews.add(review(booking, qualityByProperty.get(room.getProperty().getPropertyId()), rnd));
+                }
+            }
+            if (batch.size() >= BOOKING_BATCH) {
+                system.loadBookings(batch);
+                batch.clear();
+                batchAccepted.clear();
+            }
+        }
+        system.loadBookings(batch);
+        system.loadReviews(inCreationOrder(system, reviews));
+
+        return new GeneratedDataset(seed, anchor, studentIds, homeownerIds, adminIds,
+                toArray(propertyIdList), toArray(roomIdList), List.of(CITIES), byStatus, reviews.size(),
+                System.nanoTime() - started);
+    }
+
+    //distributions
+
+    // past stays are decided; upcoming ones are still being answered. Accepted stays earlier in the batch count as taken
+    private BookingStatus settle(Room room, DateRange period, AcceptedBookingIndex pending, SplittableRandom rnd) {
+        boolean free = room.isFreeFor(period) && pending.isFree(period);
+        int roll = rnd.nextInt(100);
+
+        if (!period.getStart().isAfter(anchor)) {
+            if (free && roll < 88) return BookingStatus.ACCEPTED;
+            else if (roll < 5) return BookingStatus.CANCELLED;
+            else if (roll < 20) return BookingStatus.EXPIRED;
+            else return BookingStatus.REJECTED;
+        }
+        if (roll < 40) return BookingStatus.REQUESTED;      //pending
+        if (roll < 85 && free) return BookingStatus.ACCEPTED;
+        else if (roll < 95) return BookingStatus.REJECTED;
+        else return BookingStatus.CANCELLED;
+    }
+
+    // on the academic calendar of the year starting in September `year`
+    private static DateRange period(SplittableRandom rnd, int year) {
+        LocalDate september = LocalDate.of(year, Month.SEPTEMBER, 1);
+        int roll = rnd.nextInt(100);
+        LocalDate start;
+        LocalDate end;
+        if (roll < 45) {            //whole academic year
+            start = september.plusDays(rnd.nextInt(21));
+            end = start.plusMonths(rnd.nextBoolean() ? 10 : 12);
+        } else if (roll < 65) {     //autumn term
+            start = september.plusDays(rnd.nextInt(15));
+            end = LocalDate.of(year + 1, Month.JANUARY, 1).plusDays(rnd.nextInt(15));
+        } else if (roll < 85) {     //spring and summer terms
+            start = LocalDate.of(year + 1, Month.JANUARY, 5).plusDays(rnd.nextInt(16));
+            end = LocalDate.of(year + 1, Month.JUNE, 1).plusDays(rnd.nextInt(30));
+        } else {                    //summer let
+            start = LocalDate.of(year + 1, Month.JUNE, 15).plusDays(rnd.nextInt(17));
+            end = LocalDate.of(year + 1, Month.AUGUST, 20).plusDays(rnd.nextInt(12));
+        }
+        LocalDate lastDay = LocalDate.of(year + 1, Month.SEPTEMBER, 1);   //rooms are let up to here
+        return new DateRange(start, end.isAfter(lastDay) ? lastDay : end);
+    }
+
+    // without an ID yet, see inCreationOrder()
+    private Review review(Booking booking, double quality, SplittableRandom rnd) {
+        int rating = (int) Math.max(1, Math.min(5, Math.round(quality + rnd.nextGaussian() * 0.9)));
+        LocalDate created = booking.getPeriod().getEnd().plusDays(rnd.nextInt(30));
+        if (created.isAfter(anchor)) created = anchor;
+        return new Review(0, booking.getBookingId(), booking.getStudent(),
+                booking.getRoom().getProperty(), rating, rating >= 4 ? "Would live here again." : "Could be better.", created);
+    }
+
+    /*
+    Reviews are drawn student by student but written up to a month after the stay, so they
+    are sorted by date before taking IDs: PropertyReviews relies on ID order being creation order.
+     */
+    private static List<Review> inCreationOrder(StudentRentalsSystem system, List<Review> drafts) {
+        drafts.sort(Comparator.comparing(Review::getCreatedAt));    //stable, ties keep draw order
+        List<Review> reviews = new ArrayList<>(drafts.size());
+        for (Review d : drafts) {
+            reviews.add(new Review(system.generateId(), d.getBookingId(), d.getStudent(), d.getProperty(),
+                    d.getRating(), d.getComment(), d.getCreatedAt()));
+        }
+        return reviews;
+    }
+
+    private static EnumSet<Amenity> amenities(SplittableRandom rnd, RoomType type) {
+        EnumSet<Amenity> set = EnumSet.noneOf(Amenity.class);
+        if (rnd.nextInt(100) < 95) set.add(Amenity.WIFI);
+        if (rnd.nextInt(100) < 80) set.add(Amenity.DESK);
+        if (rnd.nextInt(100) < 90) set.add(Amenity.KITCHEN_ACCESS);
+        if (rnd.nextInt(100) < 40) set.add(Amenity.BILLS_INCLUDED);
+        if (rnd.nextInt(100) < (type == RoomType.DOUBLE ? 45 : 10)) set.add(Amenity.PRIVATE_BATHROOM);
+        return set;
+    }
+
+    private static String name(SplittableRandom rnd) {
+        return FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+    }
+
+    private static double[] zipfCumulative(int n, double s) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1.0 / Math.pow(i + 1, s);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < n; i++) cumulative[i] /= total;
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom rnd) {
+        double x = rnd.nextDouble();
+        int lo = 0;
+        int hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int poisson(SplittableRandom rnd, double mean) {   //Knuth's method, fine for small means
+        double limit = Math.exp(-mean);
+        double p = 1.0;
+        int k = 0;
+        do {
+            k++;
+            p *= rnd.nextDouble();
+        } while (p > limit);
+        return k - 1;
+    }
+
+    private static List<Room> nearestNonEmpty(List<List<Room>> roomsByCity, int city) {
+        for (int d = 1; d < roomsByCity.size(); d++) {
+            if (city - d >= 0 && !roomsByCity.get(city - d).isEmpty()) return roomsByCity.get(city - d);
+            if (city + d < roomsByCity.size() && !roomsByCity.get(city + d).isEmpty()) return roomsByCity.get(city + d);
+        }
+        throw new IllegalStateException("No rooms were generated.");
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) array[i] = ids.get(i);
+        return array;
+    }
+}
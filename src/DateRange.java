@@ -4,6 +4,8 @@ import java.util.Objects;
 public final class DateRange {
     private final LocalDate start;
     private final LocalDate end;
+    private final long startEpochDay;
+    private final long endEpochDay;    //cached so hot paths can compare primitives
 
     public DateRange(LocalDate start, LocalDate end) {  //constructor for DateRange class
         if (start == null || end == null) {
@@ -14,6 +16,8 @@ public final class DateRange {
         }
         this.start = start;
         this.end = end;
+        this.startEpochDay = start.toEpochDay();
+        this.endEpochDay = end.toEpochDay();
     }
 
     public LocalDate getStart() {   
@@ -24,6 +28,14 @@ public final class DateRange {
         return end;
     }
 
+    public long getStartEpochDay() {
+        return startEpochDay;
+    }
+
+    public long getEndEpochDay() {  //exclusive, like end
+        return endEpochDay;
+    }
+
     public boolean contains(DateRange other) {  //checks if one date range contains another
         Objects.requireNonNull(other, "Other range must not be null.");
         return !this.start.isAfter(other.start) && !this.end.isBefore(other.end);
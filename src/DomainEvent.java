@@ -0,0 +1,22 @@
+public abstract class DomainEvent {
+
+    private final DomainEventType type;
+    private final long timestamp;   //epoch millis when the change happened
+
+    protected DomainEvent(DomainEventType type) {
+        if (type == null) throw new IllegalArgumentException("Event type must not be null.");
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    //getters
+
+    public DomainEventType getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
+//base class for booking and listing events, subclasses carry a snapshot of what changed
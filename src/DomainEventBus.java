@@ -0,0 +1,131 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class DomainEventBus {
+
+    /*
+    In-process event stream for booking and listing changes.
+    Services publish into a lock-free ring buffer and carry on; a single daemon thread
+    drains it and hands each subscriber the events in batches, in publish order.
+    Publishing never blocks: if the buffer is full the event is dropped and counted.
+     */
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final RingBuffer<DomainEvent> buffer;
+    private final List<DomainEventSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    private volatile Thread dispatcher;
+    private volatile boolean idle;
+
+    public DomainEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DomainEventBus(int capacity) {
+        this.buffer = new RingBuffer<>(capacity);
+    }
+
+    public void subscribe(DomainEventSubscriber subscriber) {
+        if (subscriber == null) throw new IllegalArgumentException("Subscriber must not be null.");
+        subscribers.add(subscriber);
+        startDispatcher();
+    }
+
+    public void unsubscribe(DomainEventSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /*
+    Queues an event for delivery. Returns false if it had to be dropped.
+    With no subscribers there is nobody to deliver to, so nothing is queued.
+     */
+    public boolean publish(DomainEvent event) {
+        if (subscribers.isEmpty()) return true;
+
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        published.incrementAndGet();
+
+        if (idle) {
+            Thread t = dispatcher;
+            if (t != null) LockSupport.unpark(t);
+        }
+        return true;
+    }
+
+    /*
+    Waits until everything published so far has been handed to subscribers.
+    Returns false on timeout.
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = published.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (delivered.get() < target) {
+            if (System.nanoTime() > deadline) return false;
+            if (Thread.interrupted()) throw new InterruptedException();
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher != null) return;
+        Thread t = new Thread(this::dispatchLoop, "domain-event-bus");
+        t.setDaemon(true);
+        dispatcher = t;
+        t.start();
+    }
+
+    private void dispatchLoop() {
+        List<DomainEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            if (buffer.drainTo(batch, MAX_BATCH) == 0) {
+                idle = true;
+                if (buffer.size() == 0) LockSupport.parkNanos(this, IDLE_PARK_NANOS);  //re-checked after idle is set, so no lost wake-up
+                idle = false;
+                continue;
+            }
+
+            List<DomainEvent> view = List.copyOf(batch);
+            for (DomainEventSubscriber subscriber : subscribers) {
+                try {
+                    subscriber.onEvents(view);
+                } catch (RuntimeException e) {
+                    // a failing subscriber must not stop delivery to the others
+                }
+            }
+            delivered.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    //stats
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public int getBacklog() {
+        return buffer.size();
+    }
+}
@@ -0,0 +1,7 @@
+import java.util.List;
+
+public interface DomainEventSubscriber {
+
+    void onEvents(List<DomainEvent> batch); //events in publish order, called on the bus dispatcher thread
+}
+//receives batches of events from the DomainEventBus
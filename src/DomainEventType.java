@@ -0,0 +1,16 @@
+public enum DomainEventType {
+    BOOKING_REQUESTED,
+    BOOKING_ACCEPTED,
+    BOOKING_REJECTED,
+    BOOKING_CANCELLED,
+    BOOKING_EXPIRED,
+    BOOKING_SUSPENDED,
+    BOOKING_RESUMED,
+    PROPERTY_ADDED,
+    PROPERTY_UPDATED,
+    PROPERTY_REMOVED,
+    ROOM_ADDED,
+    ROOM_UPDATED,
+    ROOM_REMOVED
+}
+//preset values for the events published on the DomainEventBus
@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DuplicateReviewReport {
+
+    /*
+    Offline check of a set of reviews: a batch about to go through StudentRentalsSystem.loadReviews,
+    e.g. an import from before the one-review-per-booking rule, or the reviews already stored.
+    Each review is also checked against the system's booking-to-review index, so a batch
+    review for a booking that already has a stored review is reported too, as loadReviews
+    would refuse it. For each booking with several reviews the stored one is kept if there is
+    one, otherwise the earliest, and the rest are reported; nothing is changed.
+     */
+
+    private final List<Group> groups;
+    private final int scanned;
+
+    private DuplicateReviewReport(List<Group> groups, int scanned) {
+        this.groups = Collections.unmodifiableList(groups);
+        this.scanned = scanned;
+    }
+
+    public static DuplicateReviewReport scan(Collection<Review> reviews, StudentRentalsSystem system) {
+        Map<Long, List<Review>> byBooking = new HashMap<>();
+        for (Review r : reviews) {
+            byBooking.computeIfAbsent(r.getBookingId(), k -> new ArrayList<>(1)).add(r);
+        }
+
+        List<Group> groups = new ArrayList<>();
+        for (Map.Entry<Long, List<Review>> e : byBooking.entrySet()) {
+            List<Review> same = e.getValue();
+            Review stored = system.getReviewForBooking(e.getKey());
+            if (stored != null && !containsId(same, stored.getReviewId())) same.add(stored);
+            if (same.size() < 2) continue;
+
+            same.sort(Comparator.comparingLong(Review::getReviewId));   //IDs increase, so the first is the earliest
+            long kept = stored != null ? stored.getReviewId() : same.get(0).getReviewId();
+            long[] duplicates = new long[same.size() - 1];
+            int n = 0;
+            for (Review r : same) {
+                if (r.getReviewId() != kept) duplicates[n++] = r.getReviewId();
+            }
+            groups.add(new Group(e.getKey(), kept, duplicates));
+        }
+        groups.sort(Comparator.comparingLong(Group::getBookingId));
+        return new DuplicateReviewReport(groups, reviews.size());
+    }
+
+    private static boolean containsId(List<Review> reviews, long reviewId) {
+        for (Review r : reviews) {
+            if (r.getReviewId() == reviewId) return true;
+        }
+        return false;
+    }
+
+    //getters
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    public int getScannedCount() {
+        return scanned;
+    }
+
+    public int getDuplicateCount() {    //reviews that would have to go for every booking to have one
+        int count = 0;
+        for (Group g : groups) count += g.getDuplicateReviewIds().length;
+        return count;
+    }
+
+    public boolean isClean() {
+        return groups.isEmpty();
+    }
+
+    public static final class Group {
+        private final long bookingId;
+        private final long keptReviewId;
+        private final long[] duplicateReviewIds;
+        //one booking with several reviews, the stored or else the earliest kept
+
+        private Group(long bookingId, long keptReviewId, long[] duplicateReviewIds) {
+            this.bookingId = bookingId;
+            this.keptReviewId = keptReviewId;
+            this.duplicateReviewIds = duplicateReviewIds;
+        }
+
+        public long getBookingId() {
+            return bookingId;
+        }
+
+        public long getKeptReviewId() {
+            return keptReviewId;
+        }
+
+        public long[] getDuplicateReviewIds() {
+            return duplicateReviewIds.clone();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.time.LocalDate;
+import java.util.List;
+
+public class GeneratedDataset {
+
+    private final long seed;
+    private final LocalDate anchor;
+    private final long[] studentIds;
+    private final long[] homeownerIds;
+    private final long[] adminIds;
+    private final long[] propertyIds;
+    private final long[] roomIds;
+    private final List<String> cities;      //largest first
+    private final int[] bookingsByStatus;   //indexed by BookingStatus ordinal
+    private final int reviewCount;
+    private final long elapsedNanos;
+    //what DatasetGenerator loaded, with the IDs so benchmarks and load tests can pick targets
+
+    public GeneratedDataset(long seed, LocalDate anchor, long[] studentIds, long[] homeownerIds, long[] adminIds,
+                            long[] propertyIds, long[] roomIds, List<String> cities, int[] bookingsByStatus,
+                            int reviewCount, long elapsedNanos) {
+        this.seed = seed;
+        this.anchor = anchor;
+        this.studentIds = studentIds;
+        this.homeownerIds = homeownerIds;
+        this.adminIds = adminIds;
+        this.propertyIds = propertyIds;
+        this.roomIds = roomIds;
+        this.cities = cities;
+        this.bookingsByStatus = bookingsByStatus;
+        this.reviewCount = reviewCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    //getters, the ID arrays are shared rather than copied because they can be large
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public LocalDate getAnchor() {
+        return anchor;
+    }
+
+    public long[] getStudentIds() {
+        return studentIds;
+    }
+
+    public long[] getHomeownerIds() {
+        return homeownerIds;
+    }
+
+    public long[] getAdminIds() {
+        return adminIds;
+    }
+
+    public long[] getPropertyIds() {
+        return propertyIds;
+    }
+
+    public long[] getRoomIds() {
+        return roomIds;
+    }
+
+    public List<String> getCities() {
+        return cities;
+    }
+
+    public int getBookingCount(BookingStatus status) {
+        return bookingsByStatus[status.ordinal()];
+    }
+
+    public int getBookingCount() {
+        int total = 0;
+        for (int n : bookingsByStatus) total += n;
+        return total;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append("Dataset seed=").append(seed).append(" anchor=").append(anchor)
+                .append(": ").append(studentIds.length).append(" students, ")
+                .append(homeownerIds.length).append(" homeowners, ")
+                .append(propertyIds.length).append(" properties, ")
+                .append(roomIds.length).append(" rooms, ")
+                .append(getBookingCount()).append(" bookings (");
+        for (BookingStatus status : BookingStatus.values()) {
+            if (status.ordinal() > 0) sb.append(", ");
+            sb.append(status).append('=').append(getBookingCount(status));
+        }
+        return sb.append("), ").append(reviewCount).append(" reviews in ")
+                .append(elapsedNanos / 1_000_000).append(" ms").toString();
+    }
+}
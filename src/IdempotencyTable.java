@@ -0,0 +1,153 @@
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class IdempotencyTable<V> {
+
+    /*
+    Remembers the result of a request by its idempotency key for a limited time, so a
+    retried request gets the original result instead of running again.
+    Keys are split across segments, each an insertion-ordered map with its own lock and
+    an equal share of the capacity. Oldest entries go first when a segment is full or
+    their time is up, so memory stays bounded however many retries arrive.
+    A segment lock is only held to look up or install an entry; the request itself runs
+    outside it, so slow requests never block other keys and virtual threads never pin.
+     */
+
+    private final Segment<V>[] segments;
+    private final int mask;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public IdempotencyTable(int capacity, Duration ttl, int segmentCount) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive.");
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("TTL must be positive.");
+
+        int size = 1;
+        while (size < segmentCount) size <<= 1;
+
+        this.segments = (Segment<V>[]) new Segment<?>[size];
+        int perSegment = Math.max(1, capacity / size);
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.mask = size - 1;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /*
+    Returns the value stored for the key if it has not expired, otherwise runs the supplier
+    and stores its result. Concurrent calls with the same key run the supplier once; the
+    others wait for its result. If the supplier throws, the waiting calls get the same
+    exception, nothing is stored and the next call tries again.
+     */
+    public V getOrCompute(String key, Supplier<V> supplier) {
+        if (key == null) throw new IllegalArgumentException("Key must not be null.");
+
+        Segment<V> segment = segments[spread(key.hashCode()) & mask];
+        Entry<V> entry;
+        boolean owner = false;
+        synchronized (segment) {
+            long now = System.currentTimeMillis();
+            segment.evictExpired(now);
+
+            entry = segment.entries.get(key);
+            if (entry == null) {
+                entry = new Entry<>(new CompletableFuture<>(), now + ttlMillis);
+                segment.entries.put(key, entry);    //later calls find this and wait on it
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            hits.increment();
+            return await(entry.value);
+        }
+
+        misses.increment();
+        try {
+            V value = supplier.get();
+            entry.value.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            synchronized (segment) {
+                segment.entries.remove(key, entry);
+            }
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                total += segment.entries.size();
+            }
+        }
+        return total;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {  //rethrows what the supplier threw
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> value;  //completed by the call that installed the entry
+        private final long expiresAt;
+
+        private Entry(CompletableFuture<V> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment<V> {
+        private final LinkedHashMap<String, Entry<V>> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        // entries are in insertion order and share one TTL, so expired ones are always at the front
+        private void evictExpired(long now) {
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().expiresAt > now) break;
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+public class JsonWriter {
+
+    /*
+    Writes JSON to a Writer as values are added, so a long result list is sent while it is
+    being produced and never held as one string. Output goes through a small char buffer
+    that is handed over whenever it fills. Commas are tracked with one flag per open object
+    or array; the caller is trusted to nest correctly.
+     */
+
+    private final Writer out;
+    private final char[] buffer = new char[8192];  //unsynchronized, unlike BufferedWriter
+    private int length;
+    private final boolean[] needsComma = new boolean[32];  //per nesting level
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        if (out == null) throw new IllegalArgumentException("Writer must not be null.");
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        open('{');
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        close('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        open('[');
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        close(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        string(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separate();
+        if (value == null) write("null");
+        else string(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separate();
+        write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        separate();
+        write(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separate();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    // shorthands for object fields
+    public JsonWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, double value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    public void flush() {   //hands everything written so far to the Writer and flushes it
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //output
+
+    private void open(char bracket) {
+        separate();
+        if (depth == needsComma.length) throw new IllegalStateException("JSON nested too deeply.");
+        write(bracket);
+        needsComma[depth++] = false;
+    }
+
+    private void close(char bracket) {
+        if (depth == 0) throw new IllegalStateException("Nothing to close.");
+        depth--;
+        write(bracket);
+    }
+
+    private void separate() {   //a value after a name, or the next element in the current container
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (needsComma[depth - 1]) write(',');
+            needsComma[depth - 1] = true;
+        }
+    }
+
+    // unescaped runs are copied in one go, most strings are a single run
+    private void string(String s) {
+        write('"');
+        int run = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+
+            write(s, run, i);
+            run = i + 1;
+            switch (c) {
+                case '"' -> write("\\\"");
+                case '\\' -> write("\\\\");
+                case '\n' -> write("\\n");
+                case '\r' -> write("\\r");
+                case '\t' -> write("\\t");
+                default -> write(String.format("\\u%04x", (int) c));
+            }
+        }
+        write(s, run, s.length());
+        write('"');
+    }
+
+    private void write(char c) {
+        if (length == buffer.length) drain();
+        buffer[length++] = c;
+    }
+
+    private void write(String s) {
+        write(s, 0, s.length());
+    }
+
+    private void write(String s, int from, int to) {
+        while (from < to) {
+            if (length == buffer.length) drain();
+            int n = Math.min(to - from, buffer.length - length);
+            s.getChars(from, from + n, buffer, length);
+            length += n;
+            from += n;
+        }
+    }
+
+    private void drain() {
+        try {
+            out.write(buffer, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        length = 0;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    /*
+    Log-linear histogram of durations in nanoseconds, in the style of HdrHistogram.
+    Values below 2^SUB_BITS get a bucket each; above that every power of two is split
+    into 2^SUB_BITS equal buckets, so any recorded value is known to within about 1.6%.
+    Recording is one array increment and two striped adds, with no locks and no allocation.
+    Values past MAX_NANOS (about 68 seconds) land in the last bucket.
+     */
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 36;
+    public static final long MAX_NANOS = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(Math.min(nanos, MAX_NANOS)));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) totalNanos.sum() / n;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /*
+    Value at the given quantile (0.5 for the median, 0.999 for p999), reported as the
+    upper edge of its bucket so it never under-states. 0 when nothing was recorded.
+     */
+    public long valueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) return Math.min(upperEdgeOf(i), getMaxNanos());
+        }
+        return getMaxNanos();
+    }
+
+    //bucket maths
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_COUNT) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);   //nanos is in [2^exponent, 2^(exponent+1))
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (nanos >>> shift) - SUB_COUNT;          //position within that power of two
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    static long upperEdgeOf(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int shift = bucket / SUB_COUNT - 1;
+        long sub = bucket % SUB_COUNT + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,73 @@
+public class ListingEvent extends DomainEvent {
+
+    private final Property property;
+    private final Room room;    //null for property-level events
+    private final String previousCityOrArea;
+    private final String cityOrArea;
+    private final int previousMonthlyRent;
+    private final int monthlyRent;
+    private final DateRange previousAvailability;
+    private final DateRange availability;   //before/after snapshots, equal when that part did not change
+
+    private ListingEvent(DomainEventType type, Property property, Room room,
+                         String previousCityOrArea, int previousMonthlyRent, DateRange previousAvailability) {
+        super(type);
+        if (property == null) throw new IllegalArgumentException("Property must not be null.");
+
+        this.property = property;
+        this.room = room;
+        this.previousCityOrArea = previousCityOrArea;
+        this.cityOrArea = property.getCityOrArea();
+        this.previousMonthlyRent = previousMonthlyRent;
+        this.monthlyRent = room == null ? 0 : room.getMonthlyRent();
+        this.previousAvailability = previousAvailability;
+        this.availability = room == null ? null : room.getAvailability();
+    }
+
+    public static ListingEvent forProperty(DomainEventType type, Property property, String previousCityOrArea) {
+        return new ListingEvent(type, property, null, previousCityOrArea, 0, null);
+    }
+
+    public static ListingEvent forRoom(DomainEventType type, Room room, int previousMonthlyRent, DateRange previousAvailability) {
+        Property property = room.getProperty();
+        return new ListingEvent(type, property, room, property.getCityOrArea(), previousMonthlyRent, previousAvailability);
+    }
+
+    public static ListingEvent forRoom(DomainEventType type, Room room) {
+        return forRoom(type, room, room.getMonthlyRent(), room.getAvailability());
+    }
+
+    //getters
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public String getPreviousCityOrArea() {
+        return previousCityOrArea;
+    }
+
+    public String getCityOrArea() {
+        return cityOrArea;
+    }
+
+    public int getPreviousMonthlyRent() {
+        return previousMonthlyRent;
+    }
+
+    public int getMonthlyRent() {
+        return monthlyRent;
+    }
+
+    public DateRange getPreviousAvailability() {
+        return previousAvailability;
+    }
+
+    public DateRange getAvailability() {
+        return availability;
+    }
+}
@@ -3,19 +3,46 @@ import java.util.Set;
 public class ListingService {
 
     private final StudentRentalsSystem system;
+    private final StandingSearchService standingSearches;   // optional, notified when rooms newly match saved searches
+    private final OperationMetrics addPropertyOp;
+    private final OperationMetrics updatePropertyOp;
+    private final OperationMetrics removePropertyOp;
+    private final OperationMetrics addRoomOp;
+    private final OperationMetrics updateRoomOp;
+    private final OperationMetrics removeRoomOp;
 
     public ListingService(StudentRentalsSystem system) {    //constructor for ListingService class
+        this(system, null);
+    }
+
+    public ListingService(StudentRentalsSystem system, StandingSearchService standingSearches) {
         if (system == null) throw new IllegalArgumentException("System must not be null.");
         this.system = system;
+        this.standingSearches = standingSearches;
+
+        MetricsRegistry metrics = system.getMetrics();
+        this.addPropertyOp = metrics.operation("listing.addProperty");
+        this.updatePropertyOp = metrics.operation("listing.updateProperty");
+        this.removePropertyOp = metrics.operation("listing.removeProperty");
+        this.addRoomOp = metrics.operation("listing.addRoom");
+        this.updateRoomOp = metrics.operation("listing.updateRoom");
+        this.removeRoomOp = metrics.operation("listing.removeRoom");
     }
 
     public Property addProperty(Homeowner owner, String address, String cityOrArea, String description) {   // adds a property to the system
+        return addPropertyOp.timed(() -> doAddProperty(owner, address, cityOrArea, description));
+    }
+
+    private Property doAddProperty(Homeowner owner, String address, String cityOrArea, String description) {
         if (owner == null) throw new IllegalArgumentException("Owner must not be null.");
         if (!owner.isActive()) throw new IllegalStateException("Homeowner account is deactivated.");
 
         long propertyId = system.generateId();  // generate unique ID for the property
         Property property = new Property(propertyId, owner, address, cityOrArea, description);  // create new Property object with given details
         system.addProperty(property);
+
+        system.audit(AuditEntry.allowed(owner, AuditAction.PROPERTY_ADD, propertyId, cityOrArea));
+        publish(ListingEvent.forProperty(DomainEventType.PROPERTY_ADDED, property, cityOrArea));
         return property;
     }
 
@@ -26,10 +53,20 @@ public class ListingService {
                         String description,
                         Set<Amenity> amenities,
                         DateRange availability) {
+        return addRoomOp.timed(() -> doAddRoom(owner, property, type, monthlyRent, description, amenities, availability));
+    }
+
+    private Room doAddRoom(Homeowner owner,
+                           Property property,
+                           RoomType type,
+                           int monthlyRent,
+                           String description,
+                           Set<Amenity> amenities,
+                           DateRange availability) {
 
         if (owner == null || property == null) throw new IllegalArgumentException("Owner/property must not be null.");
         if (property.getOwner().getUserId() != owner.getUserId()) {
-            throw new SecurityException("You do not own this property.");
+            throw system.denied(owner, AuditAction.ROOM_ADD, property.getPropertyId(), "You do not own this property.");
         }
 
         long roomId = system.generateId();
@@ -37,29 +74,47 @@ public class ListingService {
 
         property.addRoom(room); // add room to property's collection and update in system
         system.addRoom(room);
+
+        if (standingSearches != null) standingSearches.roomAdded(room);
+        system.audit(AuditEntry.allowed(owner, AuditAction.ROOM_ADD, roomId, "property " + property.getPropertyId()));
+        publish(ListingEvent.forRoom(DomainEventType.ROOM_ADDED, room));
         return room;
     }
 
 
     public void removeProperty(Homeowner owner, long propertyId) {  // removes a property from the system
+        removePropertyOp.timed(() -> doRemoveProperty(owner, propertyId));
+    }
+
+    private void doRemoveProperty(Homeowner owner, long propertyId) {
         Property property = system.getPropertyById(propertyId);
         if (property == null){
             throw new IllegalArgumentException("Property not found: " + propertyId);
         }
         if (property.getOwner().getUserId() != owner.getUserId()) {
-            throw new SecurityException("You do not own this property.");
+            throw system.denied(owner, AuditAction.PROPERTY_REMOVE, propertyId, "You do not own this property.");
         }
         system.removeProperty(property);
+        system.audit(AuditEntry.allowed(owner, AuditAction.PROPERTY_REMOVE, propertyId, property.getRooms().size() + " room(s)"));
+
+        for (Room room : property.getRooms()) {
+            publish(ListingEvent.forRoom(DomainEventType.ROOM_REMOVED, room));
+        }
+        publish(ListingEvent.forProperty(DomainEventType.PROPERTY_REMOVED, property, property.getCityOrArea()));
     }
 
 
     public void removeRoom(Homeowner owner, long roomId) {
+        removeRoomOp.timed(() -> doRemoveRoom(owner, roomId));
+    }
+
+    private void doRemoveRoom(Homeowner owner, long roomId) {
         Room room = system.getRoomById(roomId);
         if (room == null) throw new IllegalArgumentException("Room not found: " + roomId);
 
         Property property = room.getProperty();
         if (property.getOwner().getUserId() != owner.getUserId()) {
-            throw new SecurityException("You do not own the property for this room.");
+            throw system.denied(owner, AuditAction.ROOM_REMOVE, roomId, "You do not own the property for this room.");
         }
 
         // Remove from property collection
@@ -67,14 +122,21 @@ public class ListingService {
 
         // Remove from system + indexes
         system.removeRoom(room);
+
+        system.audit(AuditEntry.allowed(owner, AuditAction.ROOM_REMOVE, roomId, ""));
+        publish(ListingEvent.forRoom(DomainEventType.ROOM_REMOVED, room));
     }
 
     public void updateProperty(Homeowner owner, long propertyId, String newAddress, String newCityOrArea, String newDescription) {
+        updatePropertyOp.timed(() -> doUpdateProperty(owner, propertyId, newAddress, newCityOrArea, newDescription));
+    }
+
+    private void doUpdateProperty(Homeowner owner, long propertyId, String newAddress, String newCityOrArea, String newDescription) {
         Property property = system.getPropertyById(propertyId);
         if (property == null) throw new IllegalArgumentException("Property not found: " + propertyId);
 
         if (property.getOwner().getUserId() != owner.getUserId()) {
-            throw new SecurityException("You do not own this property.");
+            throw system.denied(owner, AuditAction.PROPERTY_UPDATE, propertyId, "You do not own this property.");
         }
 
         // If city changes, indexes for existing rooms must be updated.
@@ -93,8 +155,14 @@ public class ListingService {
 
             for (Room room : property.getRooms()) {
                 system.addRoom(room);
+                if (standingSearches != null && system.isListed(room)) standingSearches.roomAdded(room);    // rooms are new to the new city
             }
+            system.updatePropertyRanking(property);     // and so is the property on the leaderboards
         }
+        system.reindexProperty(property);   // address or city may have changed its place in admin listings
+
+        system.audit(AuditEntry.allowed(owner, AuditAction.PROPERTY_UPDATE, propertyId, ""));
+        publish(ListingEvent.forProperty(DomainEventType.PROPERTY_UPDATED, property, oldCity));
     }
 
     public void updateRoom(Homeowner owner,
@@ -103,18 +171,40 @@ public class ListingService {
                            String newDescription,
                            Set<Amenity> newAmenities,
                            DateRange newAvailability) {
+        updateRoomOp.timed(() -> doUpdateRoom(owner, roomId, newMonthlyRent, newDescription, newAmenities, newAvailability));
+    }
 
+    private void doUpdateRoom(Homeowner owner,
+                              long roomId,
+                              Integer newMonthlyRent,
+                              String newDescription,
+                              Set<Amenity> newAmenities,
+                              DateRange newAvailability) {
         Room room = system.getRoomById(roomId);
         if (room == null) throw new IllegalArgumentException("Room not found: " + roomId);
 
         Property property = room.getProperty();
         if (property.getOwner().getUserId() != owner.getUserId()) {
-            throw new SecurityException("You do not own the property for this room.");
+            throw system.denied(owner, AuditAction.ROOM_UPDATE, roomId, "You do not own the property for this room.");
         }
 
-        if (newMonthlyRent != null) room.setMonthlyRent(newMonthlyRent);    //update any attributes that are not null
+        int oldRent = room.getMonthlyRent();
+        DateRange oldAvailability = room.getAvailability();
+
+        if (newMonthlyRent != null) system.updateRoomRent(room, newMonthlyRent);    //update any attributes that are not null, rent is indexed
         if (newDescription != null) room.setDescription(newDescription);
         if (newAmenities != null) room.setAmenities(newAmenities);
         if (newAvailability != null) room.setAvailability(newAvailability);
+
+        if (standingSearches != null && (newMonthlyRent != null || newAvailability != null)) {
+            standingSearches.roomUpdated(room, oldRent, oldAvailability);
+        }
+
+        system.audit(AuditEntry.allowed(owner, AuditAction.ROOM_UPDATE, roomId, "rent " + oldRent + " -> " + room.getMonthlyRent()));
+        publish(ListingEvent.forRoom(DomainEventType.ROOM_UPDATED, room, oldRent, oldAvailability));
+    }
+
+    private void publish(ListingEvent event) {
+        system.getEventBus().publish(event);
     }
 }
\ No newline at end of file
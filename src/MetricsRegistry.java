@@ -0,0 +1,64 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class MetricsRegistry {
+
+    /*
+    Named counters, operation timings and gauges for the whole system.
+    Services look their metrics up once, when they are constructed, and keep the
+    references, so the hot path never touches the maps here: a counter is a striped
+    LongAdder and an operation is two nanoTime calls plus a histogram record.
+    Gauges are read only when a snapshot is taken.
+     */
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(requireName(name), k -> new LongAdder());
+    }
+
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(requireName(name), OperationMetrics::new);
+    }
+
+    public void gauge(String name, LongSupplier value) {     //replaces any gauge with the same name
+        if (value == null) throw new IllegalArgumentException("Gauge must not be null.");
+        gauges.put(requireName(name), value);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : counters.entrySet()) {
+            counterValues.put(e.getKey(), e.getValue().sum());
+        }
+
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet()) {
+            try {
+                gaugeValues.put(e.getKey(), e.getValue().getAsLong());
+            } catch (RuntimeException ex) {
+                // a broken gauge should not stop the rest of the snapshot
+            }
+        }
+
+        Map<String, MetricsSnapshot.OperationSnapshot> operationValues = new TreeMap<>();
+        for (OperationMetrics op : operations.values()) {
+            LatencyHistogram h = op.getLatency();
+            operationValues.put(op.getName(), new MetricsSnapshot.OperationSnapshot(
+                    op.getCalls(), op.getFailures(), h.getMeanNanos(),
+                    h.valueAtQuantile(0.5), h.valueAtQuantile(0.99), h.valueAtQuantile(0.999), h.getMaxNanos()));
+        }
+
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, operationValues);
+    }
+
+    private static String requireName(String name) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("Metric name must not be blank.");
+        return name;
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.Collections;
+import java.util.Map;
+
+public class MetricsSnapshot {
+
+    private final long takenAt;     //epoch millis
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, OperationSnapshot> operations;
+    //point-in-time copy of the MetricsRegistry, sorted by name
+
+    public MetricsSnapshot(long takenAt, Map<String, Long> counters, Map<String, Long> gauges,
+                           Map<String, OperationSnapshot> operations) {
+        this.takenAt = takenAt;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    //getters
+
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, OperationSnapshot> getOperations() {
+        return operations;
+    }
+
+    /*
+    Plain text export, one metric per line as "name value", latencies in microseconds.
+    Easy to read in the CLI and to scrape or diff.
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, OperationSnapshot> e : operations.entrySet()) {
+            OperationSnapshot op = e.getValue();
+            String name = e.getKey();
+            sb.append(name).append(".calls ").append(op.getCalls()).append('\n');
+            sb.append(name).append(".failures ").append(op.getFailures()).append('\n');
+            sb.append(name).append(".mean_us ").append(micros(op.getMeanNanos())).append('\n');
+            sb.append(name).append(".p50_us ").append(micros(op.getP50Nanos())).append('\n');
+            sb.append(name).append(".p99_us ").append(micros(op.getP99Nanos())).append('\n');
+            sb.append(name).append(".p999_us ").append(micros(op.getP999Nanos())).append('\n');
+            sb.append(name).append(".max_us ").append(micros(op.getMaxNanos())).append('\n');
+        }
+        for (Map.Entry<String, Long> e : counters.entrySet()) {
+            sb.append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+        }
+        for (Map.Entry<String, Long> e : gauges.entrySet()) {
+            sb.append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    public static final class OperationSnapshot {
+        private final long calls;
+        private final long failures;
+        private final double meanNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+
+        public OperationSnapshot(long calls, long failures, double meanNanos,
+                                 long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+            this.calls = calls;
+            this.failures = failures;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
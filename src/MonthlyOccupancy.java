@@ -0,0 +1,52 @@
+public class MonthlyOccupancy {
+
+    private long bookedRoomDays;
+    private long availableRoomDays;
+    private double committedRent;   //accepted room-days priced at the monthly rent, pro rata by day
+    //running totals for one property or city in one month
+
+    public MonthlyOccupancy() {
+    }
+
+    MonthlyOccupancy(MonthlyOccupancy other) {  //copy handed out to callers
+        this.bookedRoomDays = other.bookedRoomDays;
+        this.availableRoomDays = other.availableRoomDays;
+        this.committedRent = other.committedRent;
+    }
+
+    void add(long bookedDays, long availableDays, double rent) {
+        bookedRoomDays += bookedDays;
+        availableRoomDays += availableDays;
+        committedRent += rent;
+    }
+
+    boolean isEmpty() {
+        return bookedRoomDays == 0 && availableRoomDays == 0 && Math.abs(committedRent) < 1e-6;
+    }
+
+    //getters
+
+    public long getBookedRoomDays() {
+        return bookedRoomDays;
+    }
+
+    public long getAvailableRoomDays() {
+        return availableRoomDays;
+    }
+
+    public double getCommittedRent() {
+        return committedRent;
+    }
+
+    public double occupancyRate() {
+        if (availableRoomDays == 0) return 0.0;
+        return (double) bookedRoomDays / availableRoomDays;
+    }
+
+    @Override
+    public String toString() {
+        return "booked=" + bookedRoomDays +
+                ", available=" + availableRoomDays +
+                ", rent=" + String.format("%.2f", committedRent);
+    }
+}
@@ -0,0 +1,417 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class OccupancyAnalytics implements DomainEventSubscriber {
+
+    /*
+    Occupancy and committed rent per property and per city, month by month.
+    Booked room-days, available room-days and rent (monthly rent pro rata by day) are kept
+    as running totals, updated from the booking and listing events on the event bus, so a
+    query is a couple of map lookups instead of a walk over every booking and room.
+    Each room's own contribution is remembered, so rent changes, availability changes,
+    city moves and removals adjust the totals by exactly what that room had added.
+    reconcile() compares the running totals with a full recomputation from the system.
+     */
+
+    private static final double RENT_TOLERANCE = 0.01;
+
+    private final StudentRentalsSystem system;
+    private final Map<Long, Map<YearMonth, MonthlyOccupancy>> byProperty = new HashMap<>();
+    private final Map<String, Map<YearMonth, MonthlyOccupancy>> byCity = new HashMap<>();
+    private final Map<Long, RoomState> rooms = new HashMap<>();
+    private final Map<Long, Set<Long>> roomIdsByProperty = new HashMap<>();
+    private boolean started;
+
+    public OccupancyAnalytics(StudentRentalsSystem system) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        this.system = system;
+    }
+
+    /*
+    Follows the event bus and loads the current state of the system.
+    Call it at start-up, before requests are served, so no change is missed.
+    Subscribing first means a change made meanwhile is either in the loaded state or in a
+    later event, and accepted bookings are counted once by id either way.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        system.getEventBus().subscribe(this);
+        rebuild();
+    }
+
+    //queries
+
+    public synchronized MonthlyOccupancy getPropertyMonth(long propertyId, YearMonth month) {
+        return copyOf(byProperty.get(propertyId), month);
+    }
+
+    public synchronized MonthlyOccupancy getCityMonth(String cityOrArea, YearMonth month) {
+        return copyOf(byCity.get(cityKey(cityOrArea)), month);
+    }
+
+    public double getPropertyOccupancyRate(long propertyId, YearMonth month) {
+        return getPropertyMonth(propertyId, month).occupancyRate();
+    }
+
+    public double getCityOccupancyRate(String cityOrArea, YearMonth month) {
+        return getCityMonth(cityOrArea, month).occupancyRate();
+    }
+
+    //event handling, called on the bus dispatcher thread; uses only what the event carries,
+    //never the live system or room fields, which request threads are changing meanwhile
+
+    @Override
+    public synchronized void onEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            if (event instanceof BookingEvent) {
+                apply((BookingEvent) event);
+            } else if (event instanceof ListingEvent) {
+                apply((ListingEvent) event);
+            }
+        }
+    }
+
+    private void apply(BookingEvent event) {
+        Booking booking = event.getBooking();
+        switch (event.getType()) {
+            case BOOKING_ACCEPTED:
+                RoomState state = rooms.get(booking.getRoom().getRoomId());
+                if (state == null) break;  //room already removed; a new room has had its ROOM_ADDED first
+                if (state.acceptedBookingIds.add(booking.getBookingId())) addBooked(state, booking.getPeriod(), 1);
+                break;
+            case BOOKING_CANCELLED:
+            case BOOKING_REJECTED:
+                if (event.getPreviousStatus() != BookingStatus.ACCEPTED) break;
+                RoomState released = rooms.get(booking.getRoom().getRoomId());
+                if (released != null && released.acceptedBookingIds.remove(booking.getBookingId())) {
+                    addBooked(released, booking.getPeriod(), -1);
+                }
+                break;
+            default:
+                break;  //requests and expiries never held room-days
+        }
+    }
+
+    private void apply(ListingEvent event) {
+        Room room = event.getRoom();
+        switch (event.getType()) {
+            case ROOM_ADDED:
+                stateFor(event);
+                break;
+            case ROOM_UPDATED: {
+                RoomState state = stateFor(event);
+                if (!state.availability.equals(event.getAvailability())) {
+                    addAvailable(state, state.availability, -1);
+                    state.availability = event.getAvailability();
+                    addAvailable(state, state.availability, 1);
+                }
+                if (state.rent != event.getMonthlyRent()) {
+                    changeRent(state, event.getMonthlyRent());
+                }
+                break;
+            }
+            case ROOM_REMOVED: {
+                RoomState state = rooms.remove(room.getRoomId());
+                if (state == null) break;
+                addAll(state, -1);
+                Set<Long> siblings = roomIdsByProperty.get(state.propertyId);
+                if (siblings != null) siblings.remove(room.getRoomId());
+                break;
+            }
+            case PROPERTY_UPDATED:
+                moveCity(event.getProperty().getPropertyId(), cityKey(event.getCityOrArea()));
+                break;
+            case PROPERTY_REMOVED: {
+                long propertyId = event.getProperty().getPropertyId();
+                Set<Long> remaining = roomIdsByProperty.remove(propertyId);
+                if (remaining != null) {
+                    for (Long roomId : remaining) addAll(rooms.remove(roomId), -1);
+                }
+                byProperty.remove(propertyId);
+                break;
+            }
+            default:
+                break;  //nothing to count until rooms are added
+        }
+    }
+
+    //running totals
+
+    private RoomState stateFor(ListingEvent event) {  //from the event's snapshot of the room
+        Room room = event.getRoom();
+        RoomState state = rooms.get(room.getRoomId());
+        if (state != null) return state;
+
+        state = new RoomState(event.getProperty().getPropertyId(), cityKey(event.getCityOrArea()),
+                event.getMonthlyRent(), event.getAvailability());
+        rooms.put(room.getRoomId(), state);
+        roomIdsByProperty.computeIfAbsent(state.propertyId, k -> new HashSet<>()).add(room.getRoomId());
+        addAvailable(state, state.availability, 1);
+        return state;
+    }
+
+    private void addAvailable(RoomState state, DateRange period, int sign) {
+        LocalDate day = period.getStart();
+        LocalDate end = period.getEnd();
+        while (day.isBefore(end)) {
+            YearMonth month = YearMonth.from(day);
+            LocalDate next = min(month.plusMonths(1).atDay(1), end);
+            int days = (int) (next.toEpochDay() - day.toEpochDay());
+            bucket(state, month, p -> p.add(0, sign * (long) days, 0));
+            day = next;
+        }
+    }
+
+    private void addBooked(RoomState state, DateRange period, int sign) {
+        LocalDate day = period.getStart();
+        LocalDate end = period.getEnd();
+        while (day.isBefore(end)) {
+            YearMonth month = YearMonth.from(day);
+            LocalDate next = min(month.plusMonths(1).atDay(1), end);
+            int days = (int) (next.toEpochDay() - day.toEpochDay());
+            state.bookedDays.merge(month, sign * days, Integer::sum);
+            if (state.bookedDays.get(month) == 0) state.bookedDays.remove(month);
+            double rent = sign * prorated(state.rent, days, month);
+            bucket(state, month, p -> p.add(sign * (long) days, 0, rent));
+            day = next;
+        }
+    }
+
+    // re-prices the room's booked days: O(months booked), not O(bookings)
+    private void changeRent(RoomState state, int newRent) {
+        for (Map.Entry<YearMonth, Integer> e : state.bookedDays.entrySet()) {
+            YearMonth month = e.getKey();
+            double delta = prorated(newRent, e.getValue(), month) - prorated(state.rent, e.getValue(), month);
+            bucket(state, month, p -> p.add(0, 0, delta));
+        }
+        state.rent = newRent;
+    }
+
+    private void moveCity(long propertyId, String newCity) {
+        Set<Long> roomIds = roomIdsByProperty.get(propertyId);
+        if (roomIds == null) return;
+        for (Long roomId : roomIds) {
+            RoomState state = rooms.get(roomId);
+            if (state.city.equals(newCity)) continue;
+
+            addToCity(state, -1);
+            state.city = newCity;
+            addToCity(state, 1);
+        }
+    }
+
+    private void addAll(RoomState state, int sign) {    //the room's whole contribution, to property and city
+        addAvailable(state, state.availability, sign);
+        for (Map.Entry<YearMonth, Integer> e : state.bookedDays.entrySet()) {
+            YearMonth month = e.getKey();
+            int days = e.getValue();
+            double rent = sign * prorated(state.rent, days, month);
+            bucket(state, month, p -> p.add(sign * (long) days, 0, rent));
+        }
+    }
+
+    private void addToCity(RoomState state, int sign) {  //used when only the city side moves
+        Map<YearMonth, MonthlyOccupancy> months = byCity.computeIfAbsent(state.city, k -> new HashMap<>());
+        Map<YearMonth, MonthlyOccupancy> available = new HashMap<>();
+        collectAvailable(state.availability, available);
+        for (Map.Entry<YearMonth, MonthlyOccupancy> e : available.entrySet()) {
+            months.computeIfAbsent(e.getKey(), k -> new MonthlyOccupancy())
+                    .add(0, sign * e.getValue().getAvailableRoomDays(), 0);
+        }
+        for (Map.Entry<YearMonth, Integer> e : state.bookedDays.entrySet()) {
+            months.computeIfAbsent(e.getKey(), k -> new MonthlyOccupancy())
+                    .add(sign * (long) e.getValue(), 0, sign * prorated(state.rent, e.getValue(), e.getKey()));
+        }
+        if (sign < 0) prune(byCity, state.city);
+    }
+
+    private void bucket(RoomState state, YearMonth month, Consumer<MonthlyOccupancy> change) {
+        change.accept(byProperty.computeIfAbsent(state.propertyId, k -> new HashMap<>())
+                .computeIfAbsent(month, k -> new MonthlyOccupancy()));
+        change.accept(byCity.computeIfAbsent(state.city, k -> new HashMap<>())
+                .computeIfAbsent(month, k -> new MonthlyOccupancy()));
+    }
+
+    private static <K> void prune(Map<K, Map<YearMonth, MonthlyOccupancy>> map, K key) {
+        Map<YearMonth, MonthlyOccupancy> months = map.get(key);
+        if (months == null) return;
+        months.values().removeIf(MonthlyOccupancy::isEmpty);
+        if (months.isEmpty()) map.remove(key);
+    }
+
+    //full recomputation
+
+    /*
+    Throws the running totals away and recomputes them from the rooms and bookings in the
+    system, plus accepted bookings that have been moved to the booking archive.
+    Used on start-up and to repair drift, e.g. after the bus dropped events.
+     */
+    public synchronized void rebuild() {
+        byProperty.clear();
+        byCity.clear();
+        rooms.clear();
+        roomIdsByProperty.clear();
+
+        Computed computed = recompute();
+        byProperty.putAll(computed.byProperty);
+        byCity.putAll(computed.byCity);
+        rooms.putAll(computed.rooms);
+        for (Map.Entry<Long, RoomState> e : rooms.entrySet()) {
+            roomIdsByProperty.computeIfAbsent(e.getValue().propertyId, k -> new HashSet<>()).add(e.getKey());
+        }
+    }
+
+    /*
+    Waits for the event bus to catch up, recomputes everything from scratch and returns
+    one line per property/city month where the running totals disagree. Empty means consistent.
+     */
+    public List<String> reconcile() throws InterruptedException {
+        if (!system.getEventBus().awaitDrained(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Event bus did not drain, try again when it is quieter.");
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        synchronized (this) {
+            Computed expected = recompute();
+            compare("property ", expected.byProperty, byProperty, mismatches);
+            compare("city ", expected.byCity, byCity, mismatches);
+        }
+        return mismatches;
+    }
+
+    private Computed recompute() {
+        Computed computed = new Computed();
+        BookingArchive archive = system.getBookingArchive();
+
+        for (Room room : system.getAllRooms()) {
+            Property property = room.getProperty();
+            RoomState state = new RoomState(property.getPropertyId(), cityKey(property.getCityOrArea()),
+                    room.getMonthlyRent(), room.getAvailability());
+            computed.rooms.put(room.getRoomId(), state);
+
+            for (Booking b : room.copyBookings()) {    //requests may be arriving meanwhile
+                if (b.getStatus() == BookingStatus.ACCEPTED && state.acceptedBookingIds.add(b.getBookingId())) {
+                    collectBooked(state, b.getPeriod());
+                }
+            }
+            if (archive != null) {
+                for (ArchivedBooking b : archive.findByRoom(room.getRoomId())) {
+                    if (b.getStatus() == BookingStatus.ACCEPTED && state.acceptedBookingIds.add(b.getBookingId())) {
+                        collectBooked(state, b.getPeriod());
+                    }
+                }
+            }
+
+            Map<YearMonth, MonthlyOccupancy> contribution = new HashMap<>();
+            collectAvailable(state.availability, contribution);
+            for (Map.Entry<YearMonth, Integer> e : state.bookedDays.entrySet()) {
+                contribution.computeIfAbsent(e.getKey(), k -> new MonthlyOccupancy())
+                        .add(e.getValue(), 0, prorated(state.rent, e.getValue(), e.getKey()));
+            }
+            merge(computed.byProperty.computeIfAbsent(state.propertyId, k -> new HashMap<>()), contribution);
+            merge(computed.byCity.computeIfAbsent(state.city, k -> new HashMap<>()), contribution);
+        }
+        return computed;
+    }
+
+    private static void collectAvailable(DateRange period, Map<YearMonth, MonthlyOccupancy> into) {
+        LocalDate day = period.getStart();
+        while (day.isBefore(period.getEnd())) {
+            YearMonth month = YearMonth.from(day);
+            LocalDate next = min(month.plusMonths(1).atDay(1), period.getEnd());
+            into.computeIfAbsent(month, k -> new MonthlyOccupancy()).add(0, next.toEpochDay() - day.toEpochDay(), 0);
+            day = next;
+        }
+    }
+
+    private static void collectBooked(RoomState state, DateRange period) {
+        LocalDate day = period.getStart();
+        while (day.isBefore(period.getEnd())) {
+            YearMonth month = YearMonth.from(day);
+            LocalDate next = min(month.plusMonths(1).atDay(1), period.getEnd());
+            state.bookedDays.merge(month, (int) (next.toEpochDay() - day.toEpochDay()), Integer::sum);
+            day = next;
+        }
+    }
+
+    private static void merge(Map<YearMonth, MonthlyOccupancy> into, Map<YearMonth, MonthlyOccupancy> from) {
+        for (Map.Entry<YearMonth, MonthlyOccupancy> e : from.entrySet()) {
+            MonthlyOccupancy m = e.getValue();
+            into.computeIfAbsent(e.getKey(), k -> new MonthlyOccupancy())
+                    .add(m.getBookedRoomDays(), m.getAvailableRoomDays(), m.getCommittedRent());
+        }
+    }
+
+    private static <K> void compare(String label, Map<K, Map<YearMonth, MonthlyOccupancy>> expected,
+                                    Map<K, Map<YearMonth, MonthlyOccupancy>> actual, List<String> mismatches) {
+        Set<K> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (K key : keys) {
+            Map<YearMonth, MonthlyOccupancy> e = expected.getOrDefault(key, Map.of());
+            Map<YearMonth, MonthlyOccupancy> a = actual.getOrDefault(key, Map.of());
+            Set<YearMonth> months = new HashSet<>(e.keySet());
+            months.addAll(a.keySet());
+            for (YearMonth month : new TreeSet<>(months)) {
+                MonthlyOccupancy want = e.getOrDefault(month, new MonthlyOccupancy());
+                MonthlyOccupancy got = a.getOrDefault(month, new MonthlyOccupancy());
+                if (want.getBookedRoomDays() != got.getBookedRoomDays()
+                        || want.getAvailableRoomDays() != got.getAvailableRoomDays()
+                        || Math.abs(want.getCommittedRent() - got.getCommittedRent()) > RENT_TOLERANCE) {
+                    mismatches.add(label + key + " " + month + ": expected [" + want + "], running [" + got + "]");
+                }
+            }
+        }
+    }
+
+    //helpers
+
+    private static MonthlyOccupancy copyOf(Map<YearMonth, MonthlyOccupancy> months, YearMonth month) {
+        MonthlyOccupancy m = months == null ? null : months.get(month);
+        return m == null ? new MonthlyOccupancy() : new MonthlyOccupancy(m);
+    }
+
+    private static double prorated(int monthlyRent, int days, YearMonth month) {
+        return (double) monthlyRent * days / month.lengthOfMonth();
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String cityKey(String cityOrArea) {
+        return cityOrArea == null ? "" : cityOrArea.trim().toLowerCase();
+    }
+
+    private static final class RoomState {   //what one room currently contributes to the totals
+        private final long propertyId;
+        private String city;
+        private int rent;
+        private DateRange availability;
+        private final Set<Long> acceptedBookingIds = new HashSet<>();
+        private final Map<YearMonth, Integer> bookedDays = new TreeMap<>();
+
+        private RoomState(long propertyId, String city, int rent, DateRange availability) {
+            this.propertyId = propertyId;
+            this.city = city;
+            this.rent = rent;
+            this.availability = availability;
+        }
+    }
+
+    private static final class Computed {
+        private final Map<Long, Map<YearMonth, MonthlyOccupancy>> byProperty = new HashMap<>();
+        private final Map<String, Map<YearMonth, MonthlyOccupancy>> byCity = new HashMap<>();
+        private final Map<Long, RoomState> rooms = new HashMap<>();
+    }
+}
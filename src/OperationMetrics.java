@@ -0,0 +1,71 @@
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class OperationMetrics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    //calls, failures and latency for one service operation
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /*
+    Call in a finally block with the System.nanoTime() taken on entry, so every call is timed.
+     */
+    public void record(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+    }
+
+    public void failed() {  //call from a catch block before rethrowing
+        failures.increment();
+    }
+
+    /*
+    Runs the call and records its latency, and a failure if it throws.
+    Services wrap their public methods with it so the timing stays out of the logic.
+     */
+    public <T> T timed(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            failed();
+            throw e;
+        } finally {
+            record(start);
+        }
+    }
+
+    public void timed(Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            failed();
+            throw e;
+        } finally {
+            record(start);
+        }
+    }
+
+    //getters
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class PagedIndex<T> {
+
+    /*
+    Sorted buckets of entities for admin listings. Each entity sits in one or more named
+    buckets (for example "Student|ACTIVE|NAME") under a sort key of (text, id).
+    A page is read by starting every requested bucket just after the cursor key and
+    repeatedly taking the smallest head, so it costs O(page size x buckets + log n)
+    however many entities there are. The entity's current slots are remembered so a
+    re-index after a change removes exactly the old keys.
+     */
+
+    private final Map<String, NavigableMap<Key, T>> buckets = new HashMap<>();
+    private final Map<Long, List<Slot>> slotsById = new HashMap<>();
+
+    public synchronized void put(long id, T item, List<Slot> slots) {
+        remove(id);
+        for (Slot slot : slots) {
+            buckets.computeIfAbsent(slot.bucket, k -> new TreeMap<>()).put(new Key(slot.sortText, id), item);
+        }
+        slotsById.put(id, slots);
+    }
+
+    public synchronized void remove(long id) {
+        List<Slot> old = slotsById.remove(id);
+        if (old == null) return;
+        for (Slot slot : old) {
+            NavigableMap<Key, T> bucket = buckets.get(slot.bucket);
+            bucket.remove(new Key(slot.sortText, id));
+            if (bucket.isEmpty()) buckets.remove(slot.bucket);
+        }
+    }
+
+    /*
+    Up to `limit` items from the union of the named buckets, in sort order, after the
+    given cursor (null for the first page).
+     */
+    public synchronized ResultPage<T> page(List<String> bucketNames, String cursor, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive.");
+        Key after = cursor == null ? null : Key.parse(cursor);
+
+        List<Iterator<Map.Entry<Key, T>>> iterators = new ArrayList<>();
+        List<Map.Entry<Key, T>> heads = new ArrayList<>();
+        for (String name : bucketNames) {
+            NavigableMap<Key, T> bucket = buckets.get(name);
+            if (bucket == null) continue;
+            Iterator<Map.Entry<Key, T>> it = (after == null ? bucket : bucket.tailMap(after, false)).entrySet().iterator();
+            if (it.hasNext()) {
+                iterators.add(it);
+                heads.add(it.next());
+            }
+        }
+
+        List<T> items = new ArrayList<>(limit);
+        Key last = null;
+        while (items.size() < limit) {
+            int smallest = -1;
+            for (int i = 0; i < heads.size(); i++) {
+                if (heads.get(i) == null) continue;
+                if (smallest < 0 || heads.get(i).getKey().compareTo(heads.get(smallest).getKey()) < 0) smallest = i;
+            }
+            if (smallest < 0) break;
+
+            Map.Entry<Key, T> entry = heads.get(smallest);
+            items.add(entry.getValue());
+            last = entry.getKey();
+            Iterator<Map.Entry<Key, T>> it = iterators.get(smallest);
+            heads.set(smallest, it.hasNext() ? it.next() : null);
+        }
+
+        boolean more = false;
+        for (Map.Entry<Key, T> head : heads) {
+            if (head != null) more = true;
+        }
+        return new ResultPage<>(items, more ? last.toString() : null);
+    }
+
+    public synchronized int bucketSize(String bucketName) {
+        NavigableMap<Key, T> bucket = buckets.get(bucketName);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    public static final class Slot {   //which bucket an entity goes in and the text it sorts by
+        private final String bucket;
+        private final String sortText;
+
+        public Slot(String bucket, String sortText) {
+            this.bucket = bucket;
+            this.sortText = sortText == null ? "" : sortText;
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final String text;
+        private final long id;
+
+        private Key(String text, long id) {
+            this.text = text;
+            this.id = id;
+        }
+
+        // cursor form is "id:text", the id first so the text may contain anything
+        private static Key parse(String cursor) {
+            int colon = cursor.indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("Invalid cursor.");
+            try {
+                return new Key(cursor.substring(colon + 1), Long.parseLong(cursor.substring(0, colon)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            int c = text.compareTo(o.text);
+            return c != 0 ? c : Long.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && compareTo((Key) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode() * 31 + Long.hashCode(id);
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + text;
+        }
+    }
+}
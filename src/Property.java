@@ -71,7 +71,7 @@ public class Property {
     }
 
     public void applyReview(Review review) {
-        ratingSummary.addRating(review.getRating());
+        ratingSummary.addRating(review.getRating(), review.getCreatedAt());
     }
 
     public double getAverageRating() {
@@ -0,0 +1,64 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PropertyLeaderboards {
+
+    /*
+    One CityLeaderboard per city, ranking properties by their Bayesian rating score so a
+    property with a handful of perfect reviews does not jump ahead of well-established ones.
+    Each property's current city and score are remembered, so re-ranking it after a review
+    or a city move is a remove plus an insert, both O(log n).
+     */
+
+    private final Map<String, CityLeaderboard> boardsByCity = new HashMap<>();
+    private final Map<Long, Entry> entriesByPropertyId = new HashMap<>();
+
+    public synchronized void update(Property property) {  //adds the property or re-ranks it with its current city and score
+        remove(property.getPropertyId());
+
+        Entry entry = new Entry(cityKey(property.getCityOrArea()), property.getRatingSummary().bayesianScore());
+        boardsByCity.computeIfAbsent(entry.city, k -> new CityLeaderboard()).insert(property, entry.score);
+        entriesByPropertyId.put(property.getPropertyId(), entry);
+    }
+
+    public synchronized void remove(long propertyId) {
+        Entry entry = entriesByPropertyId.remove(propertyId);
+        if (entry == null) return;
+
+        CityLeaderboard board = boardsByCity.get(entry.city);
+        board.remove(propertyId, entry.score);
+        if (board.size() == 0) boardsByCity.remove(entry.city);
+    }
+
+    public synchronized List<Property> top(String cityOrArea, int n) {
+        if (n <= 0) throw new IllegalArgumentException("N must be positive.");
+        CityLeaderboard board = boardsByCity.get(cityKey(cityOrArea));
+        return board == null ? List.of() : board.top(n);
+    }
+
+    public synchronized int rankOf(long propertyId) {  //1-based rank within its city, 0 if not ranked
+        Entry entry = entriesByPropertyId.get(propertyId);
+        if (entry == null) return 0;
+        return boardsByCity.get(entry.city).rankOf(propertyId, entry.score);
+    }
+
+    public synchronized int size(String cityOrArea) {
+        CityLeaderboard board = boardsByCity.get(cityKey(cityOrArea));
+        return board == null ? 0 : board.size();
+    }
+
+    private static String cityKey(String cityOrArea) {
+        return cityOrArea == null ? "" : cityOrArea.toLowerCase();
+    }
+
+    private static final class Entry {  //where the property currently sits
+        private final String city;
+        private final double score;
+
+        private Entry(String city, double score) {
+            this.city = city;
+            this.score = score;
+        }
+    }
+}
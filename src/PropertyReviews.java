@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class PropertyReviews {
+
+    /*
+    A property's reviews in creation order, split into one list per star rating.
+    Review IDs come from the system's increasing ID counter, so each list is sorted by ID
+    and ID order is creation order. A page is read newest first by walking back from the
+    cursor in each star list that passes the filter and taking the newest head each time,
+    so a page of n reviews costs O(n) plus a binary search per list, whatever the total.
+     */
+
+    @SuppressWarnings("unchecked")
+    private final List<Review>[] byStars = (List<Review>[]) new List<?>[6];    //index = stars, 0 unused
+    private int size;
+
+    public PropertyReviews() {
+        for (int stars = 1; stars <= 5; stars++) {
+            byStars[stars] = new ArrayList<>();
+        }
+    }
+
+    public synchronized void add(Review review) {
+        List<Review> list = byStars[review.getRating()];
+        int pos = list.size();
+        if (pos > 0 && list.get(pos - 1).getReviewId() > review.getReviewId()) {
+            pos = indexAfter(list, review.getReviewId());   //arrived out of ID order, keep the list sorted
+        }
+        list.add(pos, review);
+        size++;
+    }
+
+    /*
+    Up to `limit` reviews rated minRating..maxRating, newest first, older than the review
+    with ID `beforeReviewId`. Pass 0 for the first page, then the page's next cursor.
+     */
+    public synchronized ReviewPage page(long beforeReviewId, int limit, int minRating, int maxRating) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive.");
+        if (minRating < 1 || maxRating > 5 || minRating > maxRating) {
+            throw new IllegalArgumentException("Rating filter must be within 1-5.");
+        }
+
+        int[] next = new int[6];    //per star list, index of the next (older) review to look at
+        for (int stars = minRating; stars <= maxRating; stars++) {
+            List<Review> list = byStars[stars];
+            next[stars] = beforeReviewId <= 0 ? list.size() - 1 : indexAfter(list, beforeReviewId - 1) - 1;
+        }
+
+        List<Review> reviews = new ArrayList<>(Math.min(limit, size));
+        while (reviews.size() < limit) {
+            int newest = newestHead(next, minRating, maxRating);
+            if (newest < 0) break;
+            reviews.add(byStars[newest].get(next[newest]--));
+        }
+
+        boolean more = newestHead(next, minRating, maxRating) >= 0;
+        Long cursor = more ? reviews.get(reviews.size() - 1).getReviewId() : null;
+        return new ReviewPage(reviews, cursor);
+    }
+
+    public synchronized Review newest() {   //highest review ID, or null if there are none
+        Review newest = null;
+        for (int stars = 1; stars <= 5; stars++) {
+            List<Review> list = byStars[stars];
+            if (list.isEmpty()) continue;
+            Review last = list.get(list.size() - 1);
+            if (newest == null || last.getReviewId() > newest.getReviewId()) newest = last;
+        }
+        return newest;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int getCount(int stars) {
+        return byStars[stars].size();
+    }
+
+    private int newestHead(int[] next, int minRating, int maxRating) {
+        int best = -1;
+        long bestId = Long.MIN_VALUE;
+        for (int stars = minRating; stars <= maxRating; stars++) {
+            if (next[stars] < 0) continue;
+            long id = byStars[stars].get(next[stars]).getReviewId();
+            if (id > bestId) {
+                bestId = id;
+                best = stars;
+            }
+        }
+        return best;
+    }
+
+    private static int indexAfter(List<Review> list, long reviewId) {   //first position with an ID greater than reviewId
+        int lo = 0;
+        int hi = list.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list.get(mid).getReviewId() <= reviewId) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,6 @@
+public enum PropertySort {
+    ID,
+    ADDRESS,
+    CITY
+}
+//preset sort orders for admin property listings
@@ -1,28 +1,114 @@
+import java.time.LocalDate;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
 public final class RatingSummary {
-    private int totalStars;
-    private int reviewCount;
+
+    /*
+    Summary of a property's ratings that many threads can add to without locking.
+    Each star value has its own striped counter, so the average, the 1-5 distribution
+    and the Bayesian score are all read from five counters.
+    For the time-decayed score each rating is weighted by 2^(days since EPOCH / half-life):
+    newer ratings weigh more, and because every weight is relative to the same fixed day
+    the weighted sums never need rescaling, so the decayed score is O(1) to read as well.
+     */
+
+    public static final double PRIOR_MEAN = 3.0;       //what a property with no reviews is assumed to score
+    public static final double PRIOR_WEIGHT = 5.0;     //how many reviews the prior is worth
+    public static final int HALF_LIFE_DAYS = 180;      //a rating's weight halves every six months
+    private static final LocalDate EPOCH = LocalDate.of(2020, 1, 1);
+
+    private final LongAdder[] starCounts = new LongAdder[6];    //index = stars, 0 unused
+    private final DoubleAdder decayedWeight = new DoubleAdder();
+    private final DoubleAdder decayedStars = new DoubleAdder();
     //class to summarise ratings for a property
-    // keeps track of total stars and number of reviews to calculate average rating
+
+    public RatingSummary() {
+        for (int stars = 1; stars <= 5; stars++) {
+            starCounts[stars] = new LongAdder();
+        }
+    }
 
     public void addRating(int stars) {
+        addRating(stars, LocalDate.now());
+    }
+
+    public void addRating(int stars, LocalDate createdAt) {
         if (stars < 1 || stars > 5) {
             throw new IllegalArgumentException("Rating must be between 1 and 5.");
         }
-        totalStars += stars;
-        reviewCount++;
+        if (createdAt == null) throw new IllegalArgumentException("Review date must not be null.");
+
+        double weight = weightOf(createdAt);
+        starCounts[stars].increment();
+        decayedWeight.add(weight);
+        decayedStars.add(weight * stars);
     }
 
     public int getTotalStars() {
-        return totalStars;
+        long total = 0;
+        for (int stars = 1; stars <= 5; stars++) {
+            total += stars * starCounts[stars].sum();
+        }
+        return (int) total;
     }
 
     public int getReviewCount() {
-        return reviewCount;
+        long count = 0;
+        for (int stars = 1; stars <= 5; stars++) {
+            count += starCounts[stars].sum();
+        }
+        return (int) count;
+    }
+
+    public long getCount(int stars) {
+        if (stars < 1 || stars > 5) throw new IllegalArgumentException("Rating must be between 1 and 5.");
+        return starCounts[stars].sum();
+    }
+
+    public long[] distribution() {  //element 0 is the number of 1-star ratings, element 4 of 5-star ones
+        long[] counts = new long[5];
+        for (int stars = 1; stars <= 5; stars++) {
+            counts[stars - 1] = starCounts[stars].sum();
+        }
+        return counts;
     }
 
     public double average() {
-        if (reviewCount == 0) 
+        long count = 0;
+        long total = 0;
+        for (int stars = 1; stars <= 5; stars++) {
+            long n = starCounts[stars].sum();
+            count += n;
+            total += stars * n;
+        }
+        if (count == 0)
             return 0.0;
-        return (double) totalStars / reviewCount;
+        return (double) total / count;
+    }
+
+    // average pulled towards PRIOR_MEAN, so a single 5-star review does not outrank fifty 4.8s
+    public double bayesianScore() {
+        long count = 0;
+        long total = 0;
+        for (int stars = 1; stars <= 5; stars++) {
+            long n = starCounts[stars].sum();
+            count += n;
+            total += stars * n;
+        }
+        return (PRIOR_WEIGHT * PRIOR_MEAN + total) / (PRIOR_WEIGHT + count);
+    }
+
+    // average with each rating weighted by its age, recent ones count most
+    public double decayedAverage() {
+        double weight = decayedWeight.sum();
+        if (weight == 0)
+            return 0.0;
+        return decayedStars.sum() / weight;
+    }
+
+    private static double weightOf(LocalDate createdAt) {
+        long days = createdAt.toEpochDay() - EPOCH.toEpochDay();
+        return Math.pow(2.0, (double) days / HALF_LIFE_DAYS);  //fits a double for centuries either side of EPOCH
     }
 }
@@ -0,0 +1,28 @@
+import java.util.Collections;
+import java.util.List;
+
+public class ResultPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;    //null on the last page
+    //one page of an admin listing
+
+    public ResultPage(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    //getters
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
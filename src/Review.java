@@ -3,6 +3,7 @@ import java.time.LocalDate;
 public class Review {
 
     private final long reviewId;
+    private final long bookingId;   //the stay being reviewed, at most one review each
     private final Student student;
     private final Property property;
     private final int rating;
@@ -10,24 +11,31 @@ public class Review {
     private final LocalDate createdAt;  //initialise attributes for review class
 
     public Review(long reviewId,    //constructor for review class
+                  long bookingId,
                   Student student,
                   Property property,
                   int rating,
                   String comment) {
+        this(reviewId, bookingId, student, property, rating, comment, LocalDate.now());
+    }
 
+    public Review(long reviewId, long bookingId, Student student, Property property,   //for imported or generated history
+                  int rating, String comment, LocalDate createdAt) {
         if (student == null || property == null) {
             throw new IllegalArgumentException("Student and property must not be null.");
         }
         if (rating < 1 || rating > 5) {
             throw new IllegalArgumentException("Rating must be between 1 and 5.");
         }
+        if (createdAt == null) throw new IllegalArgumentException("Created date must not be null.");
 
         this.reviewId = reviewId;
+        this.bookingId = bookingId;
         this.student = student;
         this.property = property;
         this.rating = rating;
         this.comment = comment;
-        this.createdAt = LocalDate.now();
+        this.createdAt = createdAt;
     }
     //getters
 
@@ -35,6 +43,10 @@ public class Review {
         return reviewId;
     }
 
+    public long getBookingId() {
+        return bookingId;
+    }
+
     public Student getStudent() {
         return student;
     }
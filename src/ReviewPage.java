@@ -0,0 +1,28 @@
+import java.util.Collections;
+import java.util.List;
+
+public class ReviewPage {
+
+    private final List<Review> reviews;
+    private final Long nextCursor;  //null on the last page
+    //one page of a property's reviews, newest first
+
+    public ReviewPage(List<Review> reviews, Long nextCursor) {
+        this.reviews = Collections.unmodifiableList(reviews);
+        this.nextCursor = nextCursor;
+    }
+
+    //getters
+
+    public List<Review> getReviews() {
+        return reviews;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
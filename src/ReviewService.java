@@ -1,7 +1,10 @@
+import java.util.List;
+
 public class ReviewService {
 
     private final StudentRentalsSystem system;
     private final BookingService bookingService;
+    private final OperationMetrics leaveReviewOp;
 
     public ReviewService(StudentRentalsSystem system, BookingService bookingService) {  //constructor for ReviewService class
         if (system == null || bookingService == null) {
@@ -9,25 +12,55 @@ public class ReviewService {
         }
         this.system = system;
         this.bookingService = bookingService;
+        this.leaveReviewOp = system.getMetrics().operation("review.leaveReview");
     }
 
     public Review leaveReview(Student student,
                               long bookingId,
                               int rating,
                               String comment) {
+        return leaveReviewOp.timed(() -> doLeaveReview(student, bookingId, rating, comment));
+    }
 
+    private Review doLeaveReview(Student student,
+                                 long bookingId,
+                                 int rating,
+                                 String comment) {
         if (student == null) {
             throw new IllegalArgumentException("Student must not be null.");
         }
 
-        Booking booking = system.getBookingById(bookingId);
-        if (booking == null) {
-            throw new IllegalArgumentException("Booking not found: " + bookingId);
+        if (system.getReviewForBooking(bookingId) != null) {
+            throw new IllegalStateException("This booking has already been reviewed.");
         }
 
+        Booking booking = system.getBookingById(bookingId);
+        Property property = booking != null
+                ? checkReviewable(student, booking)
+                : checkReviewableArchived(student, bookingId);  // finished bookings may have moved to the archive
+
+        long reviewId = system.generateId();
+        Review review = new Review(
+                reviewId,
+                bookingId,
+                student,
+                property,
+                rating,
+                comment
+        );
+
+        // Store review, fails if another submission for the same booking got in first
+        system.addReview(review);
+        system.applyReview(review);    //updates the rating and the city leaderboard
+        system.audit(AuditEntry.allowed(student, AuditAction.REVIEW_LEAVE, bookingId, "review " + reviewId));
+
+        return review;
+    }
+
+    private Property checkReviewable(Student student, Booking booking) {
         // Must be the student's own booking
         if (booking.getStudent().getUserId() != student.getUserId()) {
-            throw new SecurityException("You can only review your own bookings.");
+            throw system.denied(student, AuditAction.REVIEW_LEAVE, booking.getBookingId(), "You can only review your own bookings.");
         }
 
         // Must be accepted
@@ -40,21 +73,56 @@ public class ReviewService {
             throw new IllegalStateException("You can only review after the booking has ended.");
         }
 
-        Property property = booking.getRoom().getProperty();
+        return booking.getRoom().getProperty();
+    }
 
-        long reviewId = system.generateId();
-        Review review = new Review(
-                reviewId,
-                student,
-                property,
-                rating,
-                comment
-        );
+    private Property checkReviewableArchived(Student student, long bookingId) {
+        BookingArchive archive = system.getBookingArchive();
+        ArchivedBooking archived = archive == null ? null : archive.findById(bookingId);
+        if (archived == null) {
+            throw new IllegalArgumentException("Booking not found: " + bookingId);
+        }
 
-        // Store review
-        system.addReview(review);
-        property.applyReview(review);
+        if (archived.getStudentId() != student.getUserId()) {
+            throw system.denied(student, AuditAction.REVIEW_LEAVE, bookingId, "You can only review your own bookings.");
+        }
+        if (archived.getStatus() != BookingStatus.ACCEPTED) {
+            throw new IllegalStateException("Only ACCEPTED bookings can be reviewed.");
+        }
+        if (!bookingService.hasPeriodEnded(archived.getPeriod())) {
+            throw new IllegalStateException("You can only review after the booking has ended.");
+        }
 
-        return review;
+        Property property = system.getPropertyById(archived.getPropertyId());
+        if (property == null) {
+            throw new IllegalStateException("The property for this booking has been removed.");
+        }
+        return property;
+    }
+
+    /*
+    A page of a property's reviews, newest first, optionally only those rated
+    minRating..maxRating. Pass null as the cursor for the first page and the page's
+    next cursor after that.
+     */
+    public ReviewPage getReviewsForProperty(long propertyId, Long cursor, int limit, int minRating, int maxRating) {
+        if (system.getPropertyById(propertyId) == null) {
+            throw new IllegalArgumentException("Property not found: " + propertyId);
+        }
+
+        PropertyReviews reviews = system.getReviewsForProperty(propertyId);
+        if (reviews == null) {
+            if (limit <= 0) throw new IllegalArgumentException("Limit must be positive.");
+            return new ReviewPage(List.of(), null);
+        }
+        return reviews.page(cursor == null ? 0 : cursor, limit, minRating, maxRating);
+    }
+
+    public List<Property> getTopRatedProperties(String cityOrArea, int n) {
+        return system.getTopRatedProperties(cityOrArea, n);
+    }
+
+    public ReviewPage getLatestReviews(long propertyId, int limit) {
+        return getReviewsForProperty(propertyId, null, limit, 1, 5);
     }
-}
\ No newline at end of file
+}
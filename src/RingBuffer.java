@@ -0,0 +1,69 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class RingBuffer<T> {
+
+    /*
+    Bounded lock-free queue for many producers and a single consumer.
+    Producers claim a sequence number with a CAS on the tail and then fill that slot;
+    the consumer takes slots in sequence order and stops at the first one not filled yet.
+    offer() never blocks: when the buffer is full it returns false.
+     */
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();   //next sequence to claim
+    private final AtomicLong head = new AtomicLong();   //next sequence to consume, written by the consumer only
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive.");
+        int size = 1;
+        while (size < capacity) size <<= 1;  //power of two so a mask picks the slot
+
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean offer(T item) {
+        if (item == null) throw new IllegalArgumentException("Item must not be null.");
+
+        while (true) {
+            long seq = tail.get();
+            if (seq - head.get() >= slots.length()) return false;
+            if (tail.compareAndSet(seq, seq + 1)) {
+                slots.set((int) seq & mask, item);
+                return true;
+            }
+        }
+    }
+
+    /*
+    Moves up to max items into the given list and returns how many were taken.
+    Consumer thread only.
+     */
+    public int drainTo(List<T> into, int max) {
+        long seq = head.get();
+        int taken = 0;
+        while (taken < max) {
+            int index = (int) seq & mask;
+            T item = slots.get(index);
+            if (item == null) break;     //empty, or claimed but not written yet
+
+            slots.lazySet(index, null);
+            into.add(item);
+            seq++;
+            taken++;
+        }
+        if (taken > 0) head.set(seq);
+        return taken;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
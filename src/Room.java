@@ -1,5 +1,7 @@
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -15,6 +17,8 @@ public class Room {
     private DateRange availability; //initialize attributes for Room
 
     private final List<Booking> bookings;
+    private final AcceptedBookingIndex acceptedBookings;   //ACCEPTED periods only, used for conflict checks
+    private final AvailabilityCalendar calendar;    //day bitmap of availability minus accepted bookings
 
     public Room(long roomId,    //constructor for Room
                 Property property,
@@ -38,6 +42,8 @@ public class Room {
         this.amenities = amenities;
         this.availability = availability;
         this.bookings = new ArrayList<>();
+        this.acceptedBookings = new AcceptedBookingIndex();
+        this.calendar = new AvailabilityCalendar(availability);
     }
 
     //getters
@@ -70,16 +76,99 @@ public class Room {
         return availability;
     }
 
-    public List<Booking> getBookings() {
+    public List<Booking> getBookings() {    //live view, for callers holding the room's booking lock
         return Collections.unmodifiableList(bookings);
     }
 
+    public List<Booking> copyBookings() {   //a snapshot that is safe to walk while requests come in
+        synchronized (calendar) {
+            return new ArrayList<>(bookings);
+        }
+    }
+
     public boolean isWithinAvailability(DateRange requested) {
         return availability.contains(requested);
     }
 
+    /*
+    True when no ACCEPTED booking overlaps the requested period.
+    Requested bookings do not block availability until accepted.
+     */
+    public boolean isFreeFor(DateRange requested) {
+        return acceptedBookings.isFree(requested);
+    }
+
+    public List<Booking> getConflicts(DateRange requested) {   //ACCEPTED bookings overlapping the period
+        return acceptedBookings.conflicts(requested);
+    }
+
+    /*
+    Within the availability window and not taken by an ACCEPTED booking.
+    Answered from the day bitmap when the period is inside its horizon.
+     */
+    public boolean isAvailableFor(DateRange requested) {
+        Boolean free = currentCalendar().isFreeIfCovered(requested);
+        if (free != null) return free;
+        return isWithinAvailability(requested) && isFreeFor(requested);
+    }
+
+    public List<DateRange> findFreeRanges(int nights, int limit) {  //free stretches of at least `nights` days
+        return currentCalendar().findFreeRanges(nights, limit);
+    }
+
+    public AvailabilityCalendar getCalendar() {
+        return currentCalendar();
+    }
+
+    /*
+    The bitmap starts at today, so the first caller on a new day rolls it forward:
+    past days drop off the front and the accepted bookings are marked again.
+     */
+    private AvailabilityCalendar currentCalendar() {
+        if (!calendar.isCurrent(AvailabilityCalendar.today())) {
+            synchronized (calendar) {
+                if (!calendar.isCurrent(AvailabilityCalendar.today())) {
+                    calendar.reset(availability, acceptedBookings.inDateOrder());
+                }
+            }
+        }
+        return calendar;
+    }
+
+    public int getAcceptedBookingCount() {
+        return acceptedBookings.size();
+    }
+
     void addBooking(Booking booking) {
-        bookings.add(booking);
+        synchronized (calendar) {   //copyBookings() may be reading from another thread
+            bookings.add(booking);
+        }
+    }
+
+    // archived bookings leave the hot structures; they ended before today, so the calendar never covers them
+    void removeBookings(Collection<Booking> archived) {
+        Set<Booking> gone = new HashSet<>(archived);
+        synchronized (calendar) {
+            bookings.removeIf(gone::contains);
+            for (Booking b : gone) {
+                if (b.getStatus() == BookingStatus.ACCEPTED) acceptedBookings.remove(b);
+            }
+        }
+    }
+
+    // kept in step with Booking status changes, see Booking.accept()/cancel()
+    void bookingAccepted(Booking booking) {
+        synchronized (calendar) {   //the daily roll in currentCalendar() reads acceptedBookings
+            acceptedBookings.add(booking);
+            calendar.markBusy(booking.getPeriod());
+        }
+    }
+
+    void acceptedBookingReleased(Booking booking) {
+        synchronized (calendar) {
+            acceptedBookings.remove(booking);
+            calendar.markFree(booking.getPeriod());
+        }
     }
 
     public void setMonthlyRent(int monthlyRent) {
@@ -98,6 +187,9 @@ public class Room {
 
     public void setAvailability(DateRange availability) {
         if (availability == null) throw new IllegalArgumentException("Availability must not be null.");
-        this.availability = availability;
+        synchronized (calendar) {
+            this.availability = availability;
+            calendar.reset(availability, acceptedBookings.inDateOrder());   //rebuild the bitmap for the new window
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RoomLocks {
+
+    /*
+    Lock striping for booking changes: every room maps to one of a fixed set of locks.
+    Operations on the same room are serialised, rooms on different stripes run in parallel,
+    and memory stays fixed no matter how many rooms exist.
+     */
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public RoomLocks(int stripeCount) {
+        if (stripeCount <= 0) throw new IllegalArgumentException("Stripe count must be positive.");
+        int size = 1;
+        while (size < stripeCount) size <<= 1;  //round up to a power of two so a mask picks the stripe
+
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock lockFor(Room room) {
+        return stripes[stripeOf(room.getRoomId())];
+    }
+
+    /*
+    Locks the stripes of several rooms at once, always in stripe order so two
+    batches can never deadlock each other. Release with unlockAll.
+     */
+    public List<ReentrantLock> lockAll(Collection<Room> rooms) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Room room : rooms) {
+            indexes.add(stripeOf(room.getRoomId()));
+        }
+
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            held.add(lock);
+        }
+        return held;
+    }
+
+    public void unlockAll(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    int stripeOf(long roomId) {
+        long h = roomId * 0x9E3779B97F4A7C15L;  //spread sequential ids across stripes
+        return (int) (h >>> 32) & mask;
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,15 @@
+public class RoomUnavailableException extends IllegalStateException {
+
+    /*
+    A booking request failed only because an ACCEPTED booking already holds some of the
+    requested dates. Callers can offer alternatives for this case; every other refusal
+    (deactivated account, unlisted room, bad dates) stays a plain IllegalStateException
+    or IllegalArgumentException.
+     */
+
+    private static final long serialVersionUID = 1L;
+
+    public RoomUnavailableException() {
+        super("Room is not available for the requested dates.");
+    }
+}
@@ -0,0 +1,345 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScriptRunner {
+
+    /*
+    Runs a command script against the services without any prompts, for replaying traces
+    and for load tests. One command per line, '#' starts a comment:
+
+        student    <ref> <name> <email> <university> <studentNo>
+        homeowner  <ref> <name> <email>
+        admin      <ref> <name> <email>
+        property   <ref> <owner> <city> <address...>
+        room       <ref> <owner> <property> <SINGLE|DOUBLE> <rent> <from> <to>
+        search     <city> [min] [max] [type] [from to]      ('-' skips a filter)
+        request    <ref> <student> <room> <from> <to>
+        accept     <owner> <booking>
+        reject     <owner> <booking>
+        cancel     <student> <booking>
+        review     <student> <booking> <rating> [comment...]
+        deactivate <admin> <user>
+        reactivate <admin> <user>
+        barrier
+
+    A <ref> names what the line creates so later lines can use it in place of an ID;
+    plain numbers are taken as IDs already in the system. Lines between barriers form a
+    phase. A phase of searches, booking and review commands is shared out across the
+    worker threads, so their order within it is not fixed; any other phase runs in order
+    on one thread because listing and account changes are not safe to run concurrently.
+    The whole script is parsed before anything runs, so a typo fails fast.
+     */
+
+    private final StudentRentalsSystem system;
+    private final SearchService searchService;
+    private final BookingService bookingService;
+    private final ReviewService reviewService;
+    private final ListingService listingService;
+    private final AdminService adminService;
+
+    private final Map<String, Long> refs = new ConcurrentHashMap<>();    //script name -> generated ID
+
+    public ScriptRunner(StudentRentalsSystem system, SearchService searchService, BookingService bookingService,
+                        ReviewService reviewService, ListingService listingService, AdminService adminService) {
+        if (system == null || searchService == null || bookingService == null || reviewService == null
+                || listingService == null || adminService == null) {
+            throw new IllegalArgumentException("System and services must not be null.");
+        }
+        this.system = system;
+        this.searchService = searchService;
+        this.bookingService = bookingService;
+        this.reviewService = reviewService;
+        this.listingService = listingService;
+        this.adminService = adminService;
+    }
+
+    /*
+    Runs the script on up to `threads` threads. Failures are written to `out` as they happen,
+    along with every result when verbose; output is collected per thread and written in blocks.
+     */
+    public ScriptSummary run(List<String> lines, int threads, Writer out, boolean verbose) {
+        if (threads <= 0) throw new IllegalArgumentException("Threads must be positive.");
+        if (out == null) throw new IllegalArgumentException("Output must not be null.");
+
+        List<List<Command>> phases = parse(lines);
+        MetricsRegistry metrics = new MetricsRegistry();
+        int commands = 0;
+
+        long start = System.nanoTime();
+        ExecutorService workers = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            for (List<Command> phase : phases) {
+                commands += phase.size();
+                if (workers == null || !isParallel(phase)) {
+                    runCommands(phase, new AtomicInteger(), metrics, out, verbose);
+                    continue;
+                }
+
+                AtomicInteger next = new AtomicInteger();
+                List<Future<?>> running = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    running.add(workers.submit(() -> runCommands(phase, next, metrics, out, verbose)));
+                }
+                for (Future<?> f : running) {
+                    f.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Script worker failed.", e.getCause());
+        } finally {
+            if (workers != null) workers.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ScriptSummary(commands, threads, elapsed, metrics.snapshot());
+    }
+
+    //execution
+
+    // each caller takes the next unclaimed command until the phase is used up
+    private void runCommands(List<Command> phase, AtomicInteger next, MetricsRegistry metrics, Writer out, boolean verbose) {
+        StringBuilder buffer = new StringBuilder();
+        int i;
+        while ((i = next.getAndIncrement()) < phase.size()) {
+            Command command = phase.get(i);
+            OperationMetrics op = metrics.operation("script." + command.verb);
+            long start = System.nanoTime();
+            try {
+                String result = execute(command);
+                if (verbose) buffer.append("ok   line ").append(command.line).append(' ').append(command.verb)
+                        .append(": ").append(result).append('\n');
+            } catch (RuntimeException e) {
+                op.failed();
+                buffer.append("FAIL line ").append(command.line).append(' ').append(command.verb)
+                        .append(": ").append(e.getMessage()).append('\n');
+            } finally {
+                op.record(start);
+            }
+            if (buffer.length() >= 32 * 1024) write(out, buffer);
+        }
+        write(out, buffer);
+    }
+
+    private static void write(Writer out, StringBuilder buffer) {
+        if (buffer.length() == 0) return;
+        synchronized (out) {
+            try {
+                out.append(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buffer.setLength(0);
+    }
+
+    private String execute(Command c) {
+        String[] a = c.args;
+        switch (c.verb) {
+            case "student" -> {
+                Student s = new Student(system.generateId(), a[1], a[2], a[3], a[4], true);
+                system.addUser(s);
+                return bind(a[0], s.getUserId());
+            }
+            case "homeowner" -> {
+                Homeowner h = new Homeowner(system.generateId(), a[1], a[2]);
+                system.addUser(h);
+                return bind(a[0], h.getUserId());
+            }
+            case "admin" -> {
+                Admin ad = new Admin(system.generateId(), a[1], a[2]);
+                system.addUser(ad);
+                return bind(a[0], ad.getUserId());
+            }
+            case "property" -> {
+                Property p = listingService.addProperty(user(a[1], Homeowner.class), a[3], a[2], "");
+                return bind(a[0], p.getPropertyId());
+            }
+            case "room" -> {
+                Room r = listingService.addRoom(user(a[1], Homeowner.class), property(a[2]),
+                        RoomType.valueOf(a[3].toUpperCase()), Integer.parseInt(a[4]), "",
+                        EnumSet.noneOf(Amenity.class), new DateRange(LocalDate.parse(a[5]), LocalDate.parse(a[6])));
+                return bind(a[0], r.getRoomId());
+            }
+            case "search" -> {
+                DateRange period = a.length >= 6 && !a[4].equals("-")
+                        ? new DateRange(LocalDate.parse(a[4]), LocalDate.parse(a[5])) : null;
+                SearchCriteria criteria = new SearchCriteria(a[0],
+                        a.length > 1 && !a[1].equals("-") ? Integer.valueOf(a[1]) : null,
+                        a.length > 2 && !a[2].equals("-") ? Integer.valueOf(a[2]) : null,
+                        period,
+                        a.length > 3 && !a[3].equals("-") ? RoomType.valueOf(a[3].toUpperCase()) : null);
+                return searchService.searchRooms(criteria).size() + " room(s)";
+            }
+            case "request" -> {
+                Booking b = bookingService.requestBooking(user(a[1], Student.class), room(a[2]),
+                        new DateRange(LocalDate.parse(a[3]), LocalDate.parse(a[4])));
+                return bind(a[0], b.getBookingId());
+            }
+            case "accept" -> {
+                bookingService.acceptBooking(user(a[0], Homeowner.class), id(a[1]));
+                return "Booking#" + id(a[1]);
+            }
+            case "reject" -> {
+                bookingService.rejectBooking(user(a[0], Homeowner.class), id(a[1]));
+                return "Booking#" + id(a[1]);
+            }
+            case "cancel" -> {
+                bookingService.cancelBooking(user(a[0], Student.class), id(a[1]));
+                return "Booking#" + id(a[1]);
+            }
+            case "review" -> {
+                Review r = reviewService.leaveReview(user(a[0], Student.class), id(a[1]), Integer.parseInt(a[2]),
+                        a.length > 3 ? a[3] : "");
+                return "Review#" + r.getReviewId();
+            }
+            case "deactivate" -> {
+                adminService.deactivateUser(user(a[0], Admin.class), id(a[1]));
+                return "User#" + id(a[1]);
+            }
+            case "reactivate" -> {
+                adminService.reactivateUser(user(a[0], Admin.class), id(a[1]));
+                return "User#" + id(a[1]);
+            }
+            default -> throw new IllegalStateException("Unhandled command: " + c.verb);
+        }
+    }
+
+    //references
+
+    private String bind(String ref, long id) {
+        if (refs.putIfAbsent(ref, id) != null) throw new IllegalArgumentException("Reference already used: " + ref);
+        return ref + " = " + id;
+    }
+
+    private long id(String token) {
+        Long id = refs.get(token);
+        if (id != null) return id;
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown reference: " + token);
+        }
+    }
+
+    private <U extends User> U user(String token, Class<U> type) {
+        User u = system.getUserById(id(token));
+        if (!type.isInstance(u)) throw new IllegalArgumentException(type.getSimpleName() + " not found: " + token);
+        return type.cast(u);
+    }
+
+    private Property property(String token) {
+        Property p = system.getPropertyById(id(token));
+        if (p == null) throw new IllegalArgumentException("Property not found: " + token);
+        return p;
+    }
+
+    private Room room(String token) {
+        Room r = system.getRoomById(id(token));
+        if (r == null) throw new IllegalArgumentException("Room not found: " + token);
+        return r;
+    }
+
+    //parsing
+
+    private static List<List<Command>> parse(List<String> lines) {
+        List<List<Command>> phases = new ArrayList<>();
+        List<Command> phase = new ArrayList<>();
+        Set<String> defined = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String verb = line.split("\\s+", 2)[0].toLowerCase();
+            if (verb.equals("barrier")) {
+                if (!phase.isEmpty()) phases.add(phase);
+                phase = new ArrayList<>();
+                continue;
+            }
+
+            // the last field of these commands is free text and may contain spaces
+            int fields = switch (verb) {
+                case "property" -> 4;
+                case "review" -> 4;
+                default -> 0;
+            };
+            String[] parts = fields > 0 ? line.split("\\s+", fields + 1) : line.split("\\s+");
+            String[] args = new String[parts.length - 1];
+            System.arraycopy(parts, 1, args, 0, args.length);
+
+            int[] arity = arity(verb, i + 1);
+            if (args.length < arity[0] || args.length > arity[1]) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": wrong number of arguments for " + verb);
+            }
+            if (createsRef(verb) && !defined.add(args[0])) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": reference already used: " + args[0]);
+            }
+            phase.add(new Command(i + 1, verb, args));
+        }
+        if (!phase.isEmpty()) phases.add(phase);
+        return phases;
+    }
+
+    private static int[] arity(String verb, int line) {    //{min, max} arguments
+        return switch (verb) {
+            case "student" -> new int[]{5, 5};
+            case "homeowner", "admin" -> new int[]{3, 3};
+            case "property" -> new int[]{4, 4};
+            case "room" -> new int[]{7, 7};
+            case "search" -> new int[]{1, 6};
+            case "request" -> new int[]{5, 5};
+            case "accept", "reject", "cancel", "deactivate", "reactivate" -> new int[]{2, 2};
+            case "review" -> new int[]{3, 4};
+            default -> throw new IllegalArgumentException("Line " + line + ": unknown command " + verb);
+        };
+    }
+
+    private static boolean createsRef(String verb) {
+        return switch (verb) {
+            case "student", "homeowner", "admin", "property", "room", "request" -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isParallel(List<Command> phase) {
+        for (Command c : phase) {
+            switch (c.verb) {
+                case "search", "request", "accept", "reject", "cancel", "review" -> { }
+                default -> { return false; }
+            }
+        }
+        return true;
+    }
+
+    private static final class Command {
+        private final int line;
+        private final String verb;
+        private final String[] args;
+
+        private Command(int line, String verb, String[] args) {
+            this.line = line;
+            this.verb = verb;
+            this.args = args;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+public class ScriptSummary {
+
+    private final int commands;
+    private final int threads;
+    private final long elapsedNanos;
+    private final MetricsSnapshot perCommand;   //"script.<command>" operations
+    //what a scripted run did and how fast
+
+    public ScriptSummary(int commands, int threads, long elapsedNanos, MetricsSnapshot perCommand) {
+        this.commands = commands;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.perCommand = perCommand;
+    }
+
+    //getters
+
+    public int getCommands() {
+        return commands;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public MetricsSnapshot getPerCommand() {
+        return perCommand;
+    }
+
+    public long getFailures() {
+        long failures = 0;
+        for (MetricsSnapshot.OperationSnapshot op : perCommand.getOperations().values()) {
+            failures += op.getFailures();
+        }
+        return failures;
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : commands * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public String toText() {    //totals first, then latency per command in the metrics text format
+        return "script.commands " + commands + '\n' +
+                "script.failures " + getFailures() + '\n' +
+                "script.threads " + threads + '\n' +
+                "script.elapsed_ms " + String.format("%.1f", elapsedNanos / 1_000_000.0) + '\n' +
+                "script.throughput_per_s " + String.format("%.0f", getThroughputPerSecond()) + '\n' +
+                perCommand.toText();
+    }
+}
@@ -0,0 +1,5 @@
+public interface SearchMatchListener {
+
+    void onNewMatch(StandingSearch search, Room room);  //called once per room that newly matches a standing search
+}
+//callback used by StandingSearchService to deliver new matches
@@ -6,13 +6,19 @@ import java.util.Set;
 public class SearchService {
 
     private final StudentRentalsSystem system;
+    private final OperationMetrics searchOp;
 
     public SearchService(StudentRentalsSystem system) {
         if (system == null) throw new IllegalArgumentException("System must not be null.");
         this.system = system;
+        this.searchOp = system.getMetrics().operation("search.searchRooms");
     }
 
     public List<Room> searchRooms(SearchCriteria criteria) {    // searches rooms based on criteria
+        return searchOp.timed(() -> doSearchRooms(criteria));
+    }
+
+    private List<Room> doSearchRooms(SearchCriteria criteria) {
         if (criteria == null) throw new IllegalArgumentException("Criteria must not be null.");
 
         Set<Room> candidates = getInitialCandidates(criteria);  //gets initial candidates for filtering
@@ -47,8 +53,12 @@ public class SearchService {
         if (byCity != null) return new HashSet<>(byCity);
         if (byType != null) return new HashSet<>(byType);
 
-        // If no params, fall back to all rooms
-        return new HashSet<>(system.getAllRooms());
+        // If no params, fall back to all rooms that are listed
+        Set<Room> all = new HashSet<>();
+        for (Room room : system.getAllRooms()) {
+            if (system.isListed(room)) all.add(room);
+        }
+        return all;
     }
 
     private boolean passesPriceFilter(Room room, SearchCriteria criteria) {
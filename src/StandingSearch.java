@@ -0,0 +1,72 @@
+public class StandingSearch {
+
+    private final long searchId;
+    private final Student student;
+    private final SearchCriteria criteria;
+    private final SearchMatchListener listener;
+    private final String cityKey;   //lowercased city, null when the search covers every city
+
+    public StandingSearch(long searchId,    //constructor for a saved search
+                          Student student,
+                          SearchCriteria criteria,
+                          SearchMatchListener listener) {
+
+        if (student == null || criteria == null || listener == null) {
+            throw new IllegalArgumentException("Student, criteria and listener must not be null.");
+        }
+
+        this.searchId = searchId;
+        this.student = student;
+        this.criteria = criteria;
+        this.listener = listener;
+
+        String city = criteria.getCityOrArea();
+        this.cityKey = (city == null || city.isBlank()) ? null : city.toLowerCase();
+    }
+
+    //getters
+
+    public long getSearchId() {
+        return searchId;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public SearchCriteria getCriteria() {
+        return criteria;
+    }
+
+    public SearchMatchListener getListener() {
+        return listener;
+    }
+
+    String getCityKey() {
+        return cityKey;
+    }
+
+    /*
+    A room matches a standing search when it passes the normal search filters
+    and, if a period was given, no ACCEPTED booking blocks that period.
+    Whether the room is listed at all is checked by StandingSearchService first.
+     */
+    public boolean matches(Room room) {
+        return matches(room, room.getMonthlyRent(), room.getAvailability());
+    }
+
+    // same check but with rent/availability supplied, so callers can ask "did it match before the update?"
+    boolean matches(Room room, int monthlyRent, DateRange availability) {
+        if (cityKey != null && !cityKey.equalsIgnoreCase(room.getProperty().getCityOrArea())) return false;
+        if (criteria.getRoomType() != null && criteria.getRoomType() != room.getType()) return false;
+
+        Integer min = criteria.getMinPrice();
+        Integer max = criteria.getMaxPrice();
+        if (min != null && monthlyRent < min) return false;
+        if (max != null && monthlyRent > max) return false;
+
+        DateRange required = criteria.getRequiredPeriod();
+        if (required == null) return true;
+        return availability.contains(required) && room.isFreeFor(required);
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StandingSearchService {
+
+    private static final String ANY = "*";
+    private static final int RENT_BAND = 100;    //width of a rent band inside a bucket
+    private static final int MAX_BANDS = 16;     //searches spanning more bands than this go on the bucket's wide list
+
+    private final StudentRentalsSystem system;
+
+    // predicate index: "city|type" -> searches, with "*" standing in for a criterion that was left blank.
+    // A changed room only probes the 4 buckets it could possibly fall into, and inside each
+    // bucket only the searches whose rent range covers the room's rent band.
+    private final Map<String, Bucket> searchesByKey = new ConcurrentHashMap<>();
+    private final Map<Long, StandingSearch> searchesById = new ConcurrentHashMap<>();
+    private final Map<Long, Set<StandingSearch>> searchesByStudent = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    public StandingSearchService(StudentRentalsSystem system) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        this.system = system;
+    }
+
+    public StandingSearch subscribe(Student student, SearchCriteria criteria, SearchMatchListener listener) {
+        if (student == null) throw new IllegalArgumentException("Student must not be null.");
+        if (!student.isActive()) throw new IllegalStateException("Student account is deactivated.");
+
+        StandingSearch search = new StandingSearch(system.generateId(), student, criteria, listener);
+        searchesById.put(search.getSearchId(), search);
+        searchesByStudent.computeIfAbsent(student.getUserId(), k -> ConcurrentHashMap.newKeySet()).add(search);
+        searchesByKey.computeIfAbsent(keyFor(search), k -> new Bucket()).add(search);
+        count.incrementAndGet();
+        return search;
+    }
+
+    public void unsubscribe(Student student, long searchId) {
+        StandingSearch search = searchesById.get(searchId);
+        if (search == null) throw new IllegalArgumentException("Saved search not found: " + searchId);
+        if (student == null || search.getStudent().getUserId() != student.getUserId()) {
+            throw system.denied(student, AuditAction.SAVED_SEARCH_REMOVE, searchId, "You can only remove your own saved searches.");
+        }
+
+        // a concurrent unsubscribe may have got here first
+        if (!searchesById.remove(searchId, search)) throw new IllegalArgumentException("Saved search not found: " + searchId);
+        Set<StandingSearch> own = searchesByStudent.get(student.getUserId());
+        if (own != null) own.remove(search);
+        Bucket bucket = searchesByKey.get(keyFor(search));
+        if (bucket != null) bucket.remove(search);
+        count.decrementAndGet();
+    }
+
+    public List<StandingSearch> getSearchesForStudent(Student student) {
+        Set<StandingSearch> own = searchesByStudent.get(student.getUserId());
+        return own == null ? List.of() : new ArrayList<>(own);
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    /*
+    A new (or newly re-indexed) room: every search it matches is a new match.
+     */
+    public void roomAdded(Room room) {
+        if (!system.isListed(room)) return;     //hidden rooms are not searchable, so they match nothing
+        for (StandingSearch search : candidatesFor(room)) {
+            if (search.matches(room)) notify(search, room);
+        }
+    }
+
+    /*
+    Rent and/or availability changed. Only searches that match now but did not
+    match with the old values are notified.
+     */
+    public void roomUpdated(Room room, int oldMonthlyRent, DateRange oldAvailability) {
+        if (!system.isListed(room)) return;
+        for (StandingSearch search : candidatesFor(room)) {
+            if (!search.matches(room)) continue;
+            if (search.matches(room, oldMonthlyRent, oldAvailability)) continue;   // already matched before
+            notify(search, room);
+        }
+    }
+
+    /*
+    An ACCEPTED booking was cancelled, so its period may have opened up.
+    Only searches whose required period overlaps the freed dates can be affected.
+     */
+    public void acceptedBookingCancelled(Booking booking) {
+        Room room = booking.getRoom();
+        if (!system.isListed(room)) return;
+        for (StandingSearch search : candidatesFor(room)) {
+            DateRange required = search.getCriteria().getRequiredPeriod();
+            if (required == null || !required.overlaps(booking.getPeriod())) continue;
+            if (search.matches(room)) notify(search, room);
+        }
+    }
+
+    // searches in the room's 4 buckets whose rent range could include its current rent
+    private List<StandingSearch> candidatesFor(Room room) {
+        List<StandingSearch> candidates = new ArrayList<>();
+        for (String key : keysFor(room)) {
+            Bucket bucket = searchesByKey.get(key);
+            if (bucket != null) bucket.collect(room.getMonthlyRent(), candidates);
+        }
+        return candidates;
+    }
+
+    private void notify(StandingSearch search, Room room) {
+        try {
+            search.getListener().onNewMatch(search, room);
+        } catch (RuntimeException e) {
+            // a faulty listener must not break the listing/booking change that triggered it
+        }
+    }
+
+    private static String keyFor(StandingSearch search) {
+        String city = search.getCityKey() == null ? ANY : search.getCityKey();
+        RoomType type = search.getCriteria().getRoomType();
+        return city + "|" + (type == null ? ANY : type.name());
+    }
+
+    private static String[] keysFor(Room room) {
+        String city = room.getProperty().getCityOrArea().toLowerCase();
+        String type = room.getType().name();
+        return new String[] {
+                city + "|" + type,
+                city + "|" + ANY,
+                ANY + "|" + type,
+                ANY + "|" + ANY
+        };
+    }
+
+    /*
+    The searches of one "city|type" key, split by rent band: a search is listed under every
+    band its price range touches, so a room only looks at the band its rent falls in. Searches
+    without a maximum price, or spanning more than MAX_BANDS bands, are always candidates.
+     */
+    private static final class Bucket {
+
+        private final Map<Integer, Set<StandingSearch>> byBand = new ConcurrentHashMap<>();
+        private final Set<StandingSearch> wide = ConcurrentHashMap.newKeySet();
+
+        void add(StandingSearch search) {
+            int[] bands = bandsOf(search);
+            if (bands == null) {
+                wide.add(search);
+                return;
+            }
+            for (int band = bands[0]; band <= bands[1]; band++) {
+                byBand.computeIfAbsent(band, k -> ConcurrentHashMap.newKeySet()).add(search);
+            }
+        }
+
+        void remove(StandingSearch search) {
+            int[] bands = bandsOf(search);
+            if (bands == null) {
+                wide.remove(search);
+                return;
+            }
+            for (int band = bands[0]; band <= bands[1]; band++) {
+                Set<StandingSearch> set = byBand.get(band);
+                if (set != null) set.remove(search);
+            }
+        }
+
+        void collect(int monthlyRent, List<StandingSearch> into) {
+            into.addAll(wide);
+            Set<StandingSearch> set = byBand.get(monthlyRent / RENT_BAND);
+            if (set != null) into.addAll(set);
+        }
+
+        private static int[] bandsOf(StandingSearch search) {  //first and last band, null for the wide list
+            Integer min = search.getCriteria().getMinPrice();
+            Integer max = search.getCriteria().getMaxPrice();
+            if (max == null) return null;
+            int first = min == null ? 0 : Math.max(0, min) / RENT_BAND;
+            int last = Math.max(0, max) / RENT_BAND;
+            if (last < first || last - first >= MAX_BANDS) return null;
+            return new int[] {first, last};
+        }
+    }
+}
@@ -1,4 +1,17 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Scanner;
@@ -9,21 +22,98 @@ public class StudentRentalsCLI {
     private final StudentRentalsSystem system = new StudentRentalsSystem();
 
     private final SearchService searchService = new SearchService(system);
-    private final BookingService bookingService = new BookingService(system);
+    private final StandingSearchService standingSearchService = new StandingSearchService(system);
+    private final BookingExpiryService expiryService = new BookingExpiryService(BookingExpiryService.DEFAULT_TTL);
+    private final BookingService bookingService = new BookingService(system, standingSearchService, expiryService);
     private final ReviewService reviewService = new ReviewService(system, bookingService);
-    private final AdminService adminService = new AdminService(system);
-    private final ListingService listingService = new ListingService(system);   //initialise services
+    private final AdminService adminService = new AdminService(system, bookingService, standingSearchService);
+    private final ListingService listingService = new ListingService(system, standingSearchService);   //initialise services
+    private final BookingSuggestionService suggestionService = new BookingSuggestionService(system);
+    private final OccupancyAnalytics occupancyAnalytics = new OccupancyAnalytics(system);
 
     private Student demoStudent;
     private Homeowner demoHomeowner;
     private Admin demoAdmin;    //demo users for testing seeded in seedDemoData()
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--script")) {   //--script <file|-> [--threads N] [--verbose]
+            System.exit(new StudentRentalsCLI().runScript(args) ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {    //--serve [port]
+            new StudentRentalsCLI().serve(args.length > 1 ? Integer.parseInt(args[1]) : 8080);
+            return;
+        }
         new StudentRentalsCLI().run();  //run the CLI
     }
 
+    private void serve(int port) throws IOException {   //HTTP API until the process is stopped
+        system.setAuditLog(new AuditLog(Path.of(System.getProperty("studentrentals.auditDir", "audit"))));
+        openArchiveFromProperty();
+        occupancyAnalytics.start();
+        seedDemoData();
+        loadDatasetFromProperty();
+        expiryService.start();
+
+        ApiServer api = new ApiServer(system, searchService, bookingService, listingService, reviewService, adminService,
+                new InetSocketAddress(port));
+        api.start();
+        System.out.println("StudentRentals API listening on port " + api.getPort() +
+                " (demo users: student " + demoStudent.getUserId() +
+                ", homeowner " + demoHomeowner.getUserId() +
+                ", admin " + demoAdmin.getUserId() + ")");
+    }
+
+    /*
+    Non-interactive mode: runs a ScriptRunner script without the demo data and prints a
+    throughput and latency summary at the end. Returns false if any command failed.
+     */
+    private boolean runScript(String[] args) throws IOException {
+        if (args.length < 2) throw new IllegalArgumentException("Usage: --script <file|-> [--threads N] [--verbose]");
+
+        int threads = 1;
+        boolean verbose = false;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) threads = parseInt(args[++i], 1);
+            else if (args[i].equals("--verbose")) verbose = true;
+            else throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+
+        List<String> lines = args[1].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).lines().toList()
+                : Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8);
+
+        system.setAuditLog(new AuditLog(Path.of(System.getProperty("studentrentals.auditDir", "audit"))));
+        openArchiveFromProperty();
+        occupancyAnalytics.start();
+        loadDatasetFromProperty();
+        ScriptRunner runner = new ScriptRunner(system, searchService, bookingService, reviewService, listingService, adminService);
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        ScriptSummary summary;
+        try {
+            summary = runner.run(lines, threads, out, verbose);
+        } catch (IllegalArgumentException e) {  //the script did not parse, nothing has run
+            System.out.println("Script error: " + e.getMessage());
+            system.getAuditLog().close();
+            return false;
+        }
+        out.write(summary.toText());
+        out.flush();
+
+        system.getAuditLog().close();
+        return summary.getFailures() == 0;
+    }
+
     private void run() {
+        system.setAuditLog(new AuditLog(Path.of(System.getProperty("studentrentals.auditDir", "audit"))));
+        openArchiveFromProperty();
+        occupancyAnalytics.start();
         seedDemoData(); //seed demo users before any actions
+        loadDatasetFromProperty();
+
+        expiryService.addListener(b -> System.out.println("\n[Expired] Booking#" + b.getBookingId() +
+                " for Room#" + b.getRoom().getRoomId() + " was not answered in time."));
+        expiryService.start();  //unanswered requests expire in the background
 
         try (Scanner sc = new Scanner(System.in)) { //scanner for user input
             boolean running = true;
@@ -47,6 +137,27 @@ public class StudentRentalsCLI {
         }
     }
 
+    // -Dstudentrentals.archiveDir=<dir> moves finished bookings to disk, see the admin menu
+    private void openArchiveFromProperty() {
+        String dir = System.getProperty("studentrentals.archiveDir");
+        if (dir == null || dir.isBlank()) return;
+        system.setBookingArchive(new BookingArchive(Path.of(dir.trim())));
+    }
+
+    // -Dstudentrentals.dataset=<students> [-Dstudentrentals.seed=<seed>] loads generated data at startup
+    private void loadDatasetFromProperty() {
+        String students = System.getProperty("studentrentals.dataset");
+        if (students == null || students.isBlank()) return;
+        loadDataset(Integer.parseInt(students.trim()), Long.getLong("studentrentals.seed", 42L));
+    }
+
+    private void loadDataset(int students, long seed) {
+        GeneratedDataset dataset = new DatasetGenerator(seed, LocalDate.now()).generate(system, students);
+        occupancyAnalytics.rebuild();   //bulk loading publishes no events
+        bookingService.schedulePendingExpiries();   //nor sets expiry timers
+        System.out.println(dataset);
+    }
+
     private void seedDemoData() {   // create demo data for video and testing, can be removed
     demoStudent = new Student(system.generateId(), "Rhys Preston", "prestonr@cardiff.ac.uk",
             "Cardiff University", "C24030492", true);
@@ -116,6 +227,9 @@ public class StudentRentalsCLI {
             System.out.println("2) View my bookings");
             System.out.println("3) Cancel a booking");
             System.out.println("4) Leave a review");
+            System.out.println("5) Save a search (get notified of new rooms)");
+            System.out.println("6) View reviews for a property");
+            System.out.println("7) Top-rated properties in a city");
             System.out.println("0) Back");
             System.out.print("Choose: ");
 
@@ -125,6 +239,9 @@ public class StudentRentalsCLI {
                 case "2" -> printBookings(bookingService.getBookingsForStudent(student));
                 case "3" -> studentCancelBooking(sc, student);
                 case "4" -> studentLeaveReview(sc, student);
+                case "5" -> studentSaveSearch(sc, student);
+                case "6" -> viewPropertyReviews(sc);
+                case "7" -> viewTopRated(sc);
                 case "0" -> back = true;
                 default -> System.out.println("Invalid option.");
             }
@@ -132,30 +249,9 @@ public class StudentRentalsCLI {
     }
 
     private void studentSearchAndRequest(Scanner sc, Student student) { //base for search CLI
-        System.out.print("City/Area (e.g., Cardiff): ");
-        String city = sc.nextLine().trim();
+        SearchCriteria criteria = readSearchCriteria(sc);
+        DateRange required = criteria.getRequiredPeriod();
 
-        System.out.print("Min price (blank for none): ");
-        Integer min = parseIntegerOrNull(sc.nextLine().trim());
-
-        System.out.print("Max price (blank for none): ");
-        Integer max = parseIntegerOrNull(sc.nextLine().trim());
-
-        System.out.print("Room type (SINGLE/DOUBLE or blank): ");
-        RoomType type = parseRoomTypeOrNull(sc.nextLine().trim());
-
-        System.out.print("Move-in date (YYYY-MM-DD) or blank: ");
-        LocalDate start = parseDateOrNull(sc.nextLine().trim());
-
-        System.out.print("Move-out date (YYYY-MM-DD) or blank: ");
-        LocalDate end = parseDateOrNull(sc.nextLine().trim());
-
-        DateRange required = null;
-        if (start != null && end != null) {
-            required = new DateRange(start, end);
-        }
-
-        SearchCriteria criteria = new SearchCriteria(city, min, max, required, type);
         List<Room> results = searchService.searchRooms(criteria);
 
         if (results.isEmpty()) {
@@ -188,11 +284,70 @@ public class StudentRentalsCLI {
         try {
             Booking b = bookingService.requestBooking(student, chosen, required);
             System.out.println("Booking requested! Booking ID: " + b.getBookingId() + " (status: " + b.getStatus() + ")");
+        } catch (RoomUnavailableException e) {
+            System.out.println("Booking request failed: " + e.getMessage());
+            printSuggestions(suggestionService.suggest(chosen, required));  //room is taken, offer alternatives
         } catch (Exception e) {
             System.out.println("Booking request failed: " + e.getMessage());
         }
     }
 
+    private void printSuggestions(BookingSuggestions suggestions) {
+        if (suggestions.isEmpty()) return;
+
+        if (suggestions.getAlternativePeriod() != null) {
+            System.out.println("This room is free for " + suggestions.getAlternativePeriod());
+        }
+        for (Room r : suggestions.getSimilarRooms()) {
+            System.out.println("Similar room free for your dates: Room#" + r.getRoomId() +
+                    " | " + r.getProperty().getAddress() +
+                    " | " + r.getType() +
+                    " | £" + r.getMonthlyRent());
+        }
+    }
+
+    private SearchCriteria readSearchCriteria(Scanner sc) { //prompts shared by search and saved search
+        System.out.print("City/Area (e.g., Cardiff): ");
+        String city = sc.nextLine().trim();
+
+        System.out.print("Min price (blank for none): ");
+        Integer min = parseIntegerOrNull(sc.nextLine().trim());
+
+        System.out.print("Max price (blank for none): ");
+        Integer max = parseIntegerOrNull(sc.nextLine().trim());
+
+        System.out.print("Room type (SINGLE/DOUBLE or blank): ");
+        RoomType type = parseRoomTypeOrNull(sc.nextLine().trim());
+
+        System.out.print("Move-in date (YYYY-MM-DD) or blank: ");
+        LocalDate start = parseDateOrNull(sc.nextLine().trim());
+
+        System.out.print("Move-out date (YYYY-MM-DD) or blank: ");
+        LocalDate end = parseDateOrNull(sc.nextLine().trim());
+
+        DateRange required = null;
+        if (start != null && end != null) {
+            required = new DateRange(start, end);
+        }
+
+        return new SearchCriteria(city, min, max, required, type);
+    }
+
+    private void studentSaveSearch(Scanner sc, Student student) {   //saved search CLI, matches are printed as they happen
+        SearchCriteria criteria = readSearchCriteria(sc);
+
+        try {
+            StandingSearch search = standingSearchService.subscribe(student, criteria, (s, room) ->
+                    System.out.println("\n[Saved search #" + s.getSearchId() + "] New match: Room#" + room.getRoomId() +
+                            " | " + room.getProperty().getCityOrArea() +
+                            " | " + room.getType() +
+                            " | £" + room.getMonthlyRent()));
+            System.out.println("Search saved! Saved search ID: " + search.getSearchId());
+        } catch (Exception e) {
+            System.out.println("Save failed: " + e.getMessage());
+        }
+    }
+
     private void studentCancelBooking(Scanner sc, Student student) {    //cancel booking CLI
         printBookings(bookingService.getBookingsForStudent(student));
         System.out.print("Enter bookingId to cancel: ");
@@ -229,6 +384,69 @@ public class StudentRentalsCLI {
         }
     }
 
+    private void viewPropertyReviews(Scanner sc) {  //paged reviews CLI, newest first
+        System.out.print("Enter propertyId: ");
+        long propertyId = parseLong(sc.nextLine().trim(), -1);
+        if (propertyId <= 0) return;
+
+        Property property = system.getPropertyById(propertyId);
+        if (property != null && property.getRatingSummary().getReviewCount() > 0) {
+            RatingSummary ratings = property.getRatingSummary();
+            long[] counts = ratings.distribution();
+            System.out.println("Average " + String.format("%.2f", ratings.average()) +
+                    " (recent " + String.format("%.2f", ratings.decayedAverage()) + ")" +
+                    " from " + ratings.getReviewCount() + " review(s)" +
+                    " | 5*: " + counts[4] + " 4*: " + counts[3] + " 3*: " + counts[2] +
+                    " 2*: " + counts[1] + " 1*: " + counts[0]);
+        }
+
+        System.out.print("Minimum rating (1-5, blank for all): ");
+        Integer min = parseIntegerOrNull(sc.nextLine().trim());
+
+        Long cursor = null;
+        try {
+            while (true) {
+                ReviewPage page = reviewService.getReviewsForProperty(propertyId, cursor, 10, min == null ? 1 : min, 5);
+                if (page.getReviews().isEmpty() && cursor == null) {
+                    System.out.println("No reviews yet.");
+                    return;
+                }
+                for (Review r : page.getReviews()) {
+                    System.out.println(r.getCreatedAt() + " | " + r.getRating() + "/5 | " +
+                            r.getStudent().getName() + ": " + r.getComment());
+                }
+                if (!page.hasMore()) return;
+
+                System.out.print("Show more? (y/n): ");
+                if (!sc.nextLine().trim().equalsIgnoreCase("y")) return;
+                cursor = page.getNextCursor();
+            }
+        } catch (Exception e) {
+            System.out.println("Could not load reviews: " + e.getMessage());
+        }
+    }
+
+    private void viewTopRated(Scanner sc) {     //leaderboard CLI
+        System.out.print("City/Area: ");
+        String city = sc.nextLine().trim();
+        if (city.isEmpty()) return;
+
+        List<Property> top = reviewService.getTopRatedProperties(city, 10);
+        if (top.isEmpty()) {
+            System.out.println("No properties in " + city + ".");
+            return;
+        }
+        for (int i = 0; i < top.size(); i++) {
+            Property p = top.get(i);
+            RatingSummary ratings = p.getRatingSummary();
+            System.out.println((i + 1) + ") Property#" + p.getPropertyId() +
+                    " | " + p.getAddress() +
+                    " | score " + String.format("%.2f", ratings.bayesianScore()) +
+                    " | avg " + String.format("%.2f", ratings.average()) +
+                    " from " + ratings.getReviewCount() + " review(s)");
+        }
+    }
+
     //Homeowner Menu
 
     private void homeownerMenu(Scanner sc, Homeowner homeowner) {
@@ -246,6 +464,8 @@ public class StudentRentalsCLI {
             System.out.println("9) Accept booking");
             System.out.println("10) Reject booking");
             System.out.println("11) View all my bookings");
+            System.out.println("12) Accept all pending requests");
+            System.out.println("13) View occupancy and rent by month");
             System.out.println("0) Back");
             System.out.print("Choose: ");
 
@@ -262,6 +482,8 @@ public class StudentRentalsCLI {
                 case "9" -> homeownerAccept(sc, homeowner);
                 case "10" -> homeownerReject(sc, homeowner);
                 case "11" -> printBookings(bookingService.getBookingsForHomeowner(homeowner));
+                case "12" -> homeownerAcceptAll(sc, homeowner);
+                case "13" -> homeownerOccupancy(sc, homeowner);
                 case "0" -> back = true;
                 default -> System.out.println("Invalid option.");
             }
@@ -505,6 +727,52 @@ public class StudentRentalsCLI {
         }
     }
 
+    private void homeownerAcceptAll(Scanner sc, Homeowner homeowner) {  //batch accept CLI, overlapping requests settled by policy
+        System.out.print("When requests overlap, prefer (1) earliest request or (2) longest stay: ");
+        BatchAcceptPolicy policy = "2".equals(sc.nextLine().trim())
+                ? BatchAcceptPolicy.LONGEST_STAY
+                : BatchAcceptPolicy.EARLIEST_REQUEST;
+
+        List<Room> rooms = new ArrayList<>();
+        for (Property p : getMyProperties(homeowner)) {
+            rooms.addAll(p.getRooms());
+        }
+
+        try {
+            BatchAcceptResult result = bookingService.acceptBestPerRoom(homeowner, rooms, policy);
+            System.out.println("Accepted " + result.getAccepted().size() +
+                    " request(s), rejected " + result.getRejected().size() + " conflicting request(s).");
+        } catch (Exception e) {
+            System.out.println("Batch accept failed: " + e.getMessage());
+        }
+    }
+
+    private void homeownerOccupancy(Scanner sc, Homeowner homeowner) {  //occupancy CLI, per property and for its city
+        System.out.print("Month (YYYY-MM, blank for this month): ");
+        String input = sc.nextLine().trim();
+        YearMonth month;
+        try {
+            month = input.isEmpty() ? YearMonth.now() : YearMonth.parse(input);
+        } catch (Exception e) {
+            System.out.println("Invalid month.");
+            return;
+        }
+
+        List<Property> properties = getMyProperties(homeowner);
+        if (properties.isEmpty()) {
+            System.out.println("You have no properties.");
+            return;
+        }
+        for (Property p : properties) {
+            MonthlyOccupancy mine = occupancyAnalytics.getPropertyMonth(p.getPropertyId(), month);
+            MonthlyOccupancy city = occupancyAnalytics.getCityMonth(p.getCityOrArea(), month);
+            System.out.printf("Property#%d (%s) %s: %.0f%% occupied, %d/%d room-days, £%.2f committed | %s average %.0f%%%n",
+                    p.getPropertyId(), p.getCityOrArea(), month,
+                    mine.occupancyRate() * 100, mine.getBookedRoomDays(), mine.getAvailableRoomDays(),
+                    mine.getCommittedRent(), p.getCityOrArea(), city.occupancyRate() * 100);
+        }
+    }
+
     private void homeownerReject(Scanner sc, Homeowner homeowner) { //reject booking CLI
         homeownerViewRequests(homeowner);
         System.out.print("Enter bookingId to reject: ");
@@ -529,41 +797,121 @@ public class StudentRentalsCLI {
             System.out.println("2) List properties");
             System.out.println("3) Deactivate user");
             System.out.println("4) Remove property");
+            System.out.println("5) Reactivate user");
+            System.out.println("6) Show metrics");
+            System.out.println("7) View audit log");
+            System.out.println("8) Load generated dataset");
+            System.out.println("9) Archive finished bookings");
+            System.out.println("10) Check reviews for duplicates");
             System.out.println("0) Back");
             System.out.print("Choose: ");
 
             String choice = sc.nextLine().trim();
             switch (choice) {
-                case "1" -> listUsers();
-                case "2" -> listProperties();
+                case "1" -> adminListUsers(sc, admin);
+                case "2" -> adminListProperties(sc, admin);
                 case "3" -> adminDeactivate(sc, admin);
                 case "4" -> adminRemoveProperty(sc, admin);
+                case "5" -> adminReactivate(sc, admin);
+                case "6" -> System.out.print(system.getMetrics().snapshot().toText());
+                case "7" -> adminViewAudit(sc);
+                case "8" -> adminLoadDataset(sc);
+                case "9" -> adminArchiveBookings(sc);
+                case "10" -> adminCheckDuplicateReviews(admin);
                 case "0" -> back = true;
                 default -> System.out.println("Invalid option.");
             }
         }
     }
 
-    private void listUsers() {
+    private void adminListUsers(Scanner sc, Admin admin) {  //user listing CLI with filters
+        System.out.print("Role (STUDENT/HOMEOWNER/ADMIN or blank): ");
+        String roleText = sc.nextLine().trim().toUpperCase();
+        Class<? extends User> role = switch (roleText) {
+            case "STUDENT" -> Student.class;
+            case "HOMEOWNER" -> Homeowner.class;
+            case "ADMIN" -> Admin.class;
+            default -> null;
+        };
+
+        System.out.print("Status (ACTIVE/DEACTIVATED or blank): ");
+        AccountStatus status = parseEnumOrNull(AccountStatus.class, sc.nextLine().trim());
+
+        System.out.print("Sort by (ID/NAME/EMAIL, default ID): ");
+        UserSort sort = parseEnumOrNull(UserSort.class, sc.nextLine().trim());
+
+        pageUsers(sc, admin, role, status, sort == null ? UserSort.ID : sort);
+    }
+
+    private void pageUsers(Scanner sc, Admin admin, Class<? extends User> role, AccountStatus status, UserSort sort) {
         System.out.println("\nUsers:");
-        for (User u : adminService.listUsers()) {
-            System.out.println("User#" + u.getUserId() + " | " + u);
+        String cursor = null;
+        try {
+            while (true) {
+                ResultPage<User> page = adminService.queryUsers(admin, role, status, sort, cursor, 10);
+                if (page.getItems().isEmpty() && cursor == null) {
+                    System.out.println("No matching users.");
+                    return;
+                }
+                for (User u : page.getItems()) {
+                    System.out.println("User#" + u.getUserId() + " | " + u);
+                }
+                if (!page.hasMore()) return;
+
+                System.out.print("Show more? (y/n): ");
+                if (!sc.nextLine().trim().equalsIgnoreCase("y")) return;
+                cursor = page.getNextCursor();
+            }
+        } catch (Exception e) {
+            System.out.println("Could not list users: " + e.getMessage());
         }
     }
 
-    private void listProperties() {
+    private void adminListProperties(Scanner sc, Admin admin) {    //property listing CLI with filters
+        System.out.print("City/Area (blank for all): ");
+        String city = sc.nextLine().trim();
+
+        System.out.print("Owner userId (blank for all): ");
+        long ownerId = parseLong(sc.nextLine().trim(), -1);
+
+        System.out.print("Sort by (ID/ADDRESS/CITY, default ID): ");
+        PropertySort sort = parseEnumOrNull(PropertySort.class, sc.nextLine().trim());
+
+        pageProperties(sc, admin, city.isEmpty() ? null : city, ownerId > 0 ? ownerId : null,
+                sort == null ? PropertySort.ID : sort);
+    }
+
+    private void pageProperties(Scanner sc, Admin admin, String city, Long ownerId, PropertySort sort) {
         System.out.println("\nProperties:");
-        for (Property p : adminService.listProperties()) {
-            System.out.println("Property#" + p.getPropertyId() +
-                    " | Owner=" + p.getOwner().getName() +
-                    " | " + p.getCityOrArea() +
-                    " | AvgRating=" + String.format("%.2f", p.getAverageRating()) +
-                    " | Rooms=" + p.getRooms().size());
+        String cursor = null;
+        try {
+            while (true) {
+                ResultPage<Property> page = adminService.queryProperties(admin, city, ownerId, sort, cursor, 10);
+                if (page.getItems().isEmpty() && cursor == null) {
+                    System.out.println("No matching properties.");
+                    return;
+                }
+                for (Property p : page.getItems()) {
+                    System.out.println("Property#" + p.getPropertyId() +
+                            " | Owner=" + p.getOwner().getName() +
+                            " | " + p.getAddress() +
+                            " | " + p.getCityOrArea() +
+                            " | AvgRating=" + String.format("%.2f", p.getAverageRating()) +
+                            " | Rooms=" + p.getRooms().size());
+                }
+                if (!page.hasMore()) return;
+
+                System.out.print("Show more? (y/n): ");
+                if (!sc.nextLine().trim().equalsIgnoreCase("y")) return;
+                cursor = page.getNextCursor();
+            }
+        } catch (Exception e) {
+            System.out.println("Could not list properties: " + e.getMessage());
         }
     }
 
     private void adminDeactivate(Scanner sc, Admin admin) {
-        listUsers();
+        pageUsers(sc, admin, null, AccountStatus.ACTIVE, UserSort.ID);
         System.out.print("Enter userId to deactivate: ");
         long id = parseLong(sc.nextLine().trim(), -1);
         if (id <= 0) return;
@@ -576,8 +924,86 @@ public class StudentRentalsCLI {
         }
     }
 
+    private void adminViewAudit(Scanner sc) {   //audit log CLI, entries from the last N minutes
+        System.out.print("Show entries from the last how many minutes? (default 60): ");
+        int minutes = parseInt(sc.nextLine().trim(), 60);
+        if (minutes <= 0) return;
+
+        long now = System.currentTimeMillis();
+        try {
+            List<AuditEntry> entries = system.getAuditLog().query(now - minutes * 60_000L, now + 1);
+            if (entries.isEmpty()) {
+                System.out.println("No audit entries in that period.");
+                return;
+            }
+            for (AuditEntry e : entries) {
+                System.out.println(e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("Could not read audit log: " + e.getMessage());
+        }
+    }
+
+    private void adminLoadDataset(Scanner sc) {    //generated dataset CLI, adds to what is already loaded
+        System.out.print("Number of students (others scale from it): ");
+        int students = parseInt(sc.nextLine().trim(), 0);
+        if (students <= 0) return;
+
+        System.out.print("Seed (default 42): ");
+        long seed = parseLong(sc.nextLine().trim(), 42);
+
+        try {
+            loadDataset(students, seed);
+        } catch (Exception e) {
+            System.out.println("Load failed: " + e.getMessage());
+        }
+    }
+
+    private void adminArchiveBookings(Scanner sc) {  //needs -Dstudentrentals.archiveDir
+        System.out.print("Archive accepted stays that ended on or before (YYYY-MM-DD, blank for today): ");
+        String input = sc.nextLine().trim();
+
+        try {
+            LocalDate cutoff = input.isEmpty() ? LocalDate.now() : LocalDate.parse(input);
+            int archived = bookingService.archiveFinishedBookings(cutoff);
+            System.out.println("Archived " + archived + " bookings to " + system.getBookingArchive().getDirectory());
+        } catch (Exception e) {
+            System.out.println("Archive failed: " + e.getMessage());
+        }
+    }
+
+    private void adminCheckDuplicateReviews(Admin admin) {  //report only, nothing is removed
+        DuplicateReviewReport report = adminService.findDuplicateReviews(admin);
+        System.out.println("Scanned " + report.getScannedCount() + " reviews.");
+        if (report.isClean()) {
+            System.out.println("No booking has more than one review.");
+            return;
+        }
+        for (DuplicateReviewReport.Group g : report.getGroups()) {
+            System.out.println("Booking#" + g.getBookingId() + " keep Review#" + g.getKeptReviewId()
+                    + ", duplicates " + Arrays.toString(g.getDuplicateReviewIds()));
+        }
+        System.out.println(report.getDuplicateCount() + " duplicate reviews.");
+    }
+
+    private void adminReactivate(Scanner sc, Admin admin) {
+        pageUsers(sc, admin, null, AccountStatus.DEACTIVATED, UserSort.ID);
+        System.out.print("Enter userId to reactivate: ");
+        long id = parseLong(sc.nextLine().trim(), -1);
+        if (id <= 0) return;
+
+        try {
+            adminService.reactivateUser(admin, id);
+            System.out.println("User reactivated.");
+        } catch (Exception e) {
+            System.out.println("Reactivate failed: " + e.getMessage());
+        }
+    }
+
     private void adminRemoveProperty(Scanner sc, Admin admin) {
-        listProperties();
+        pageProperties(sc, admin, null, null, PropertySort.ID);
         System.out.print("Enter propertyId to remove: ");
         long id = parseLong(sc.nextLine().trim(), -1);
         if (id <= 0) return;
@@ -590,7 +1016,6 @@ public class StudentRentalsCLI {
         }
     }
 
-
     private void printBookings(List<Booking> bookings) {
         if (bookings.isEmpty()) {
             System.out.println("No bookings.");
@@ -635,6 +1060,12 @@ public class StudentRentalsCLI {
         catch (Exception e) { return null; }
     }
 
+    private <E extends Enum<E>> E parseEnumOrNull(Class<E> type, String s) {
+        if (s == null || s.isBlank()) return null;
+        try { return Enum.valueOf(type, s.toUpperCase()); }
+        catch (Exception e) { return null; }
+    }
+
     private Set<Amenity> parseAmenities(String line) {
         if (line == null || line.isBlank()) return EnumSet.noneOf(Amenity.class);
 
@@ -1,13 +1,15 @@
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class StudentRentalsSystem {
 
     //ID generation
-    private long nextId = 1;
+    private final AtomicLong nextId = new AtomicLong(1);    //atomic so bookings on different rooms can be created in parallel
 
     public long generateId() {
-        return nextId++;
+        return nextId.getAndIncrement();
     }
 
     //storage
@@ -15,13 +17,56 @@ public class StudentRentalsSystem {
     private final Map<String, User> usersByEmail = new HashMap<>();
 
     private final Map<Long, Property> propertiesById = new HashMap<>();
+    private final Map<Long, Set<Property>> propertiesByOwner = new HashMap<>();   //ownerId -> properties
     private final Map<Long, Room> roomsById = new HashMap<>();
-    private final Map<Long, Booking> bookingsById = new HashMap<>();
-    private final Map<Long, Review> reviewsById = new HashMap<>();
+    private final Map<Long, Booking> bookingsById = new ConcurrentHashMap<>();   //written concurrently by BookingService
+    private final Map<Long, Set<Booking>> bookingsByStudent = new ConcurrentHashMap<>();  //studentId -> live bookings
+    private final Map<Long, Set<Booking>> bookingsByOwner = new ConcurrentHashMap<>();    //homeownerId -> live bookings on their rooms
+    private final Map<Long, Review> reviewsById = new ConcurrentHashMap<>();
+    private final Map<Long, Review> reviewsByBookingId = new ConcurrentHashMap<>();  //one review per booking
+    private final Map<Long, PropertyReviews> reviewsByProperty = new ConcurrentHashMap<>();
+    private volatile BookingArchive bookingArchive;     //finished bookings on disk, optional
+    private volatile AuditLog auditLog;                 //admin and ownership-sensitive actions, optional
 
 
     private final Map<String, Set<Room>> roomsByCity = new HashMap<>();
     private final Map<RoomType, Set<Room>> roomsByType = new HashMap<>();
+    private final Map<String, NavigableMap<Integer, Set<Room>>> roomsByCityTypeRent = new HashMap<>();  //"city|TYPE" -> rent -> rooms
+    private final PropertyLeaderboards leaderboards = new PropertyLeaderboards();     //per city, by rating
+
+    //sorted buckets behind the paged admin listings
+    private static final List<Class<? extends User>> USER_ROLES = List.of(Student.class, Homeowner.class, Admin.class);
+    private final PagedIndex<User> userListing = new PagedIndex<>();        //"Role|STATUS|SORT"
+    private final PagedIndex<Property> propertyListing = new PagedIndex<>(); //"scope|SORT", scope is all, city and/or owner
+
+    //booking and listing changes are published here by the services
+    private final DomainEventBus eventBus = new DomainEventBus();
+
+    //counters and timings for the services, and index sizes below
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    public StudentRentalsSystem() {
+        metrics.gauge("index.users", usersById::size);
+        metrics.gauge("index.properties", propertiesById::size);
+        metrics.gauge("index.rooms", roomsById::size);
+        metrics.gauge("index.rooms.cities", roomsByCity::size);
+        metrics.gauge("index.bookings", bookingsById::size);
+        metrics.gauge("index.reviews", reviewsById::size);
+        metrics.gauge("archive.bookings", () -> bookingArchive == null ? 0 : bookingArchive.size());
+        metrics.gauge("events.published", eventBus::getPublishedCount);
+        metrics.gauge("events.dropped", eventBus::getDroppedCount);
+        metrics.gauge("events.backlog", eventBus::getBacklog);
+        metrics.gauge("audit.recorded", () -> auditLog == null ? 0 : auditLog.getRecordedCount());
+        metrics.gauge("audit.dropped", () -> auditLog == null ? 0 : auditLog.getDroppedCount());
+    }
+
+    public DomainEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
 
     //USERS
 
@@ -37,6 +82,35 @@ public class StudentRentalsSystem {
 
         usersById.put(user.getUserId(), user);
         usersByEmail.put(emailKey, user);
+        reindexUser(user);
+    }
+
+    // role, status, name and email decide where a user is listed, call after any of them changes
+    public void reindexUser(User user) {
+        Objects.requireNonNull(user, "User must not be null.");
+        if (usersById.get(user.getUserId()) != user) return;
+
+        String prefix = user.getClass().getSimpleName() + "|" + user.getStatus() + "|";
+        userListing.put(user.getUserId(), user, List.of(
+                new PagedIndex.Slot(prefix + UserSort.ID, ""),
+                new PagedIndex.Slot(prefix + UserSort.NAME, user.getName().toLowerCase()),
+                new PagedIndex.Slot(prefix + UserSort.EMAIL, user.getEmail().toLowerCase())));
+    }
+
+    /*
+    One page of users, optionally filtered by role and status (null for any), in the given
+    order. Pass the previous page's cursor to continue, null to start.
+     */
+    public ResultPage<User> queryUsers(Class<? extends User> role, AccountStatus status, UserSort sort, String cursor, int limit) {
+        if (sort == null) throw new IllegalArgumentException("Sort must not be null.");
+
+        List<String> buckets = new ArrayList<>();
+        for (Class<? extends User> r : role == null ? USER_ROLES : List.<Class<? extends User>>of(role)) {
+            for (AccountStatus s : status == null ? AccountStatus.values() : new AccountStatus[]{status}) {
+                buckets.add(r.getSimpleName() + "|" + s + "|" + sort);
+            }
+        }
+        return userListing.page(buckets, cursor, limit);
     }
 
     public User getUserById(long userId) {
@@ -60,6 +134,9 @@ public class StudentRentalsSystem {
             throw new IllegalArgumentException("Duplicate propertyId: " + property.getPropertyId());
         }
         propertiesById.put(property.getPropertyId(), property);
+        propertiesByOwner.computeIfAbsent(property.getOwner().getUserId(), k -> new LinkedHashSet<>()).add(property);
+        leaderboards.update(property);
+        reindexProperty(property);
     }
 
     public Property getPropertyById(long propertyId) {
@@ -70,6 +147,11 @@ public class StudentRentalsSystem {
         return new ArrayList<>(propertiesById.values());
     }
 
+    public List<Property> getPropertiesByOwner(long ownerId) {
+        Set<Property> owned = propertiesByOwner.get(ownerId);
+        return owned == null ? List.of() : new ArrayList<>(owned);
+    }
+
     public void removeProperty(Property property) {
         Objects.requireNonNull(property, "Property must not be null.");
 
@@ -78,7 +160,71 @@ public class StudentRentalsSystem {
             removeRoom(room);
         }
 
+        // and its reviews, which nothing can reach once the property is gone
+        PropertyReviews reviews = reviewsByProperty.remove(property.getPropertyId());
+        if (reviews != null) {
+            ReviewPage page = reviews.page(0, Math.max(1, reviews.size()), 1, 5);
+            for (Review review : page.getReviews()) {
+                reviewsById.remove(review.getReviewId());
+                reviewsByBookingId.remove(review.getBookingId(), review);
+            }
+        }
+
         propertiesById.remove(property.getPropertyId());
+        Set<Property> owned = propertiesByOwner.get(property.getOwner().getUserId());
+        if (owned != null) {
+            owned.remove(property);
+            if (owned.isEmpty()) propertiesByOwner.remove(property.getOwner().getUserId());
+        }
+        leaderboards.remove(property.getPropertyId());
+        propertyListing.remove(property.getPropertyId());
+    }
+
+    // address and city decide where a property is listed, call after either changes
+    public void reindexProperty(Property property) {
+        Objects.requireNonNull(property, "Property must not be null.");
+        if (propertiesById.get(property.getPropertyId()) != property) return;
+
+        String city = "city:" + property.getCityOrArea().toLowerCase();
+        String owner = "owner:" + property.getOwner().getUserId();
+        List<PagedIndex.Slot> slots = new ArrayList<>();
+        for (String scope : new String[]{"all", city, owner, owner + "|" + city}) {
+            slots.add(new PagedIndex.Slot(scope + "|" + PropertySort.ID, ""));
+            slots.add(new PagedIndex.Slot(scope + "|" + PropertySort.ADDRESS, property.getAddress().toLowerCase()));
+            slots.add(new PagedIndex.Slot(scope + "|" + PropertySort.CITY,
+                    property.getCityOrArea().toLowerCase() + "\u0000" + property.getAddress().toLowerCase()));
+        }
+        propertyListing.put(property.getPropertyId(), property, slots);
+    }
+
+    /*
+    One page of properties, optionally filtered by city and owner (null for any), in the
+    given order. Pass the previous page's cursor to continue, null to start.
+     */
+    public ResultPage<Property> queryProperties(String cityOrArea, Long ownerId, PropertySort sort, String cursor, int limit) {
+        if (sort == null) throw new IllegalArgumentException("Sort must not be null.");
+
+        String scope = "all";
+        if (ownerId != null) scope = "owner:" + ownerId;
+        if (cityOrArea != null && !cityOrArea.isBlank()) {
+            String city = "city:" + cityOrArea.trim().toLowerCase();
+            scope = ownerId == null ? city : scope + "|" + city;
+        }
+        return propertyListing.page(List.of(scope + "|" + sort), cursor, limit);
+    }
+
+    // city and rating decide a property's place on the leaderboards, call after either changes
+    public void updatePropertyRanking(Property property) {
+        Objects.requireNonNull(property, "Property must not be null.");
+        if (propertiesById.get(property.getPropertyId()) == property) leaderboards.update(property);
+    }
+
+    public List<Property> getTopRatedProperties(String cityOrArea, int n) {
+        return leaderboards.top(cityOrArea, n);
+    }
+
+    public int getPropertyRank(long propertyId) {   //1-based within its city, 0 if unknown
+        return leaderboards.rankOf(propertyId);
     }
 
     //ROOMS
@@ -90,11 +236,7 @@ public class StudentRentalsSystem {
         }
 
         roomsById.put(room.getRoomId(), room);
-
-        String cityKey = room.getProperty().getCityOrArea().toLowerCase();
-        roomsByCity.computeIfAbsent(cityKey, k -> new HashSet<>()).add(room);
-
-        roomsByType.computeIfAbsent(room.getType(), k -> new HashSet<>()).add(room);
+        if (isListed(room)) indexRoom(room);
     }
 
     public Room getRoomById(long roomId) {
@@ -115,12 +257,75 @@ public class StudentRentalsSystem {
         return roomsByType.getOrDefault(type, Set.of());
     }
 
+    /*
+    Rooms in a city with the given type and rent in [minRent, maxRent], keyed by rent.
+     */
+    public NavigableMap<Integer, Set<Room>> getRoomsByCityTypeAndRent(String cityOrArea, RoomType type, int minRent, int maxRent) {
+        if (cityOrArea == null || type == null || minRent > maxRent) return Collections.emptyNavigableMap();
+        NavigableMap<Integer, Set<Room>> byRent = roomsByCityTypeRent.get(cityTypeKey(cityOrArea, type));
+        if (byRent == null) return Collections.emptyNavigableMap();
+        return Collections.unmodifiableNavigableMap(byRent.subMap(minRent, true, maxRent, true));
+    }
+
+    // rent is part of an index key, so it has to change through here
+    public void updateRoomRent(Room room, int newMonthlyRent) {
+        Objects.requireNonNull(room, "Room must not be null.");
+        if (newMonthlyRent < 0) throw new IllegalArgumentException("Rent must not be negative.");
+        boolean indexed = roomsById.get(room.getRoomId()) == room && isListed(room);
+
+        if (indexed) unindexRent(room);
+        room.setMonthlyRent(newMonthlyRent);
+        if (indexed) indexRent(room);
+    }
+
     public void removeRoom(Room room) {
         Objects.requireNonNull(room, "Room must not be null.");
 
         roomsById.remove(room.getRoomId());
+        unindexRoom(room);
+    }
 
-        // Remove from indexes
+    /*
+    Rooms of a deactivated homeowner stay in the system, so their bookings still resolve,
+    but leave the city/type/rent indexes that search and suggestions read.
+    Costs O(owner's rooms); call after the status change.
+     */
+    public void hideRoomsOf(Homeowner owner) {
+        for (Property property : getPropertiesByOwner(owner.getUserId())) {
+            for (Room room : property.getRooms()) {
+                if (roomsById.get(room.getRoomId()) == room) unindexRoom(room);
+            }
+        }
+    }
+
+    // returns the rooms that are searchable again, so standing searches can be told about them
+    public List<Room> showRoomsOf(Homeowner owner) {
+        List<Room> shown = new ArrayList<>();
+        for (Property property : getPropertiesByOwner(owner.getUserId())) {
+            for (Room room : property.getRooms()) {
+                if (roomsById.get(room.getRoomId()) == room && isListed(room)) {
+                    indexRoom(room);
+                    shown.add(room);
+                }
+            }
+        }
+        return shown;
+    }
+
+    public boolean isListed(Room room) {    //searchable: its owner's account is active
+        return room.getProperty().getOwner().isActive();
+    }
+
+    private void indexRoom(Room room) {
+        String cityKey = room.getProperty().getCityOrArea().toLowerCase();
+        roomsByCity.computeIfAbsent(cityKey, k -> new HashSet<>()).add(room);
+
+        roomsByType.computeIfAbsent(room.getType(), k -> new HashSet<>()).add(room);
+
+        indexRent(room);
+    }
+
+    private void unindexRoom(Room room) {
         String cityKey = room.getProperty().getCityOrArea().toLowerCase();
         Set<Room> citySet = roomsByCity.get(cityKey);
         if (citySet != null) {
@@ -133,16 +338,43 @@ public class StudentRentalsSystem {
             typeSet.remove(room);
             if (typeSet.isEmpty()) roomsByType.remove(room.getType());
         }
+
+        unindexRent(room);
+    }
+
+    private void indexRent(Room room) {
+        roomsByCityTypeRent
+                .computeIfAbsent(cityTypeKey(room.getProperty().getCityOrArea(), room.getType()), k -> new TreeMap<>())
+                .computeIfAbsent(room.getMonthlyRent(), k -> new HashSet<>())
+                .add(room);
+    }
+
+    private void unindexRent(Room room) {
+        String key = cityTypeKey(room.getProperty().getCityOrArea(), room.getType());
+        NavigableMap<Integer, Set<Room>> byRent = roomsByCityTypeRent.get(key);
+        if (byRent == null) return;
+
+        Set<Room> rentSet = byRent.get(room.getMonthlyRent());
+        if (rentSet != null) {
+            rentSet.remove(room);
+            if (rentSet.isEmpty()) byRent.remove(room.getMonthlyRent());
+        }
+        if (byRent.isEmpty()) roomsByCityTypeRent.remove(key);
+    }
+
+    private static String cityTypeKey(String cityOrArea, RoomType type) {
+        return cityOrArea.toLowerCase() + "|" + type.name();
     }
 
     //BOOKINGS
 
     public void addBooking(Booking booking) {
         Objects.requireNonNull(booking, "Booking must not be null.");
-        if (bookingsById.containsKey(booking.getBookingId())) {
+        if (bookingsById.putIfAbsent(booking.getBookingId(), booking) != null) {
             throw new IllegalArgumentException("Duplicate bookingId: " + booking.getBookingId());
         }
-        bookingsById.put(booking.getBookingId(), booking);
+        bookingsByStudent.computeIfAbsent(booking.getStudent().getUserId(), k -> ConcurrentHashMap.newKeySet()).add(booking);
+        bookingsByOwner.computeIfAbsent(ownerIdOf(booking), k -> ConcurrentHashMap.newKeySet()).add(booking);
     }
 
     public Booking getBookingById(long bookingId) {
@@ -153,21 +385,189 @@ public class StudentRentalsSystem {
         return new ArrayList<>(bookingsById.values());
     }
 
+    public List<Booking> getBookingsForStudent(long studentId) {
+        Set<Booking> own = bookingsByStudent.get(studentId);
+        return own == null ? List.of() : new ArrayList<>(own);
+    }
+
+    // every live booking on the owner's rooms, including rooms and properties removed since
+    public List<Booking> getBookingsForOwner(long ownerId) {
+        Set<Booking> owned = bookingsByOwner.get(ownerId);
+        return owned == null ? List.of() : new ArrayList<>(owned);
+    }
+
+    public void removeBooking(Booking booking) {    //used when a booking moves to the archive
+        Objects.requireNonNull(booking, "Booking must not be null.");
+        if (bookingsById.remove(booking.getBookingId(), booking)) {
+            Set<Booking> own = bookingsByStudent.get(booking.getStudent().getUserId());
+            if (own != null) own.remove(booking);
+            Set<Booking> owned = bookingsByOwner.get(ownerIdOf(booking));
+            if (owned != null) owned.remove(booking);
+        }
+    }
+
+    private static long ownerIdOf(Booking booking) {
+        return booking.getRoom().getProperty().getOwner().getUserId();
+    }
+
+    //ARCHIVE
+
+    public void setBookingArchive(BookingArchive bookingArchive) {
+        this.bookingArchive = bookingArchive;
+    }
+
+    public BookingArchive getBookingArchive() {   //null when archiving is not set up
+        return bookingArchive;
+    }
+
+    //AUDIT
+
+    public void setAuditLog(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    public AuditLog getAuditLog() {   //null when auditing is not set up
+        return auditLog;
+    }
+
+    public void audit(AuditEntry entry) {   //never blocks, a no-op without an audit log
+        AuditLog log = auditLog;
+        if (log != null) log.record(entry);
+    }
+
+    // records a refused action and returns the exception for the caller to throw
+    public SecurityException denied(User actor, AuditAction action, long targetId, String message) {
+        audit(AuditEntry.denied(actor, action, targetId, message));
+        return new SecurityException(message);
+    }
+
     //REVIEWS
 
+    /*
+    Claiming the booking is a single putIfAbsent, so of two concurrent reviews for the
+    same booking exactly one is stored and the other gets an IllegalStateException.
+     */
     public void addReview(Review review) {
         Objects.requireNonNull(review, "Review must not be null.");
-        if (reviewsById.containsKey(review.getReviewId())) {
+        if (reviewsByBookingId.putIfAbsent(review.getBookingId(), review) != null) {
+            throw new IllegalStateException("Booking " + review.getBookingId() + " has already been reviewed.");
+        }
+        if (reviewsById.putIfAbsent(review.getReviewId(), review) != null) {
+            reviewsByBookingId.remove(review.getBookingId(), review);
             throw new IllegalArgumentException("Duplicate reviewId: " + review.getReviewId());
         }
-        reviewsById.put(review.getReviewId(), review);
+        reviewsByProperty.computeIfAbsent(review.getProperty().getPropertyId(), k -> new PropertyReviews()).add(review);
     }
 
     public Review getReviewById(long reviewId) {
         return reviewsById.get(reviewId);
     }
 
+    // the rating is part of the leaderboard key, so reviews are applied through here
+    public void applyReview(Review review) {
+        Objects.requireNonNull(review, "Review must not be null.");
+        review.getProperty().applyReview(review);
+        updatePropertyRanking(review.getProperty());
+    }
+
+    public Review getReviewForBooking(long bookingId) {
+        return reviewsByBookingId.get(bookingId);
+    }
+
+    public PropertyReviews getReviewsForProperty(long propertyId) {   //null if the property has no reviews
+        return reviewsByProperty.get(propertyId);
+    }
+
     public List<Review> getAllReviews() {
         return new ArrayList<>(reviewsById.values());
     }
-}
\ No newline at end of file
+
+    //BULK LOADING
+
+    /*
+    Adds finished booking history and pending requests in one pass, for generated or
+    imported datasets. Bookings arrive with their status already decided (see the Booking
+    constructor taking a status) and nothing about them is in the rooms yet. The whole batch
+    is checked first - duplicate IDs, and ACCEPTED stays overlapping each other or a room's
+    accepted bookings - so a rejected batch leaves the system as it was; only then are the
+    accepted stays marked in each room's accepted index and calendar. Meant for start-up,
+    before requests are served. No events are published and no expiry timers are set:
+    a BookingService created afterwards schedules the pending requests, an existing one
+    does so on schedulePendingExpiries().
+     */
+    public void loadBookings(Collection<Booking> bookings) {
+        Set<Long> batchIds = new HashSet<>();   //checked up front so a bad batch leaves nothing behind
+        Map<Room, AcceptedBookingIndex> batchAccepted = new HashMap<>();
+        for (Booking booking : bookings) {
+            Objects.requireNonNull(booking, "Booking must not be null.");
+            if (bookingsById.containsKey(booking.getBookingId()) || !batchIds.add(booking.getBookingId())) {
+                throw new IllegalArgumentException("Duplicate bookingId: " + booking.getBookingId());
+            }
+            if (booking.getStatus() == BookingStatus.ACCEPTED) {
+                if (!booking.getRoom().isFreeFor(booking.getPeriod())) {
+                    throw new IllegalStateException("Booking " + booking.getBookingId() + " overlaps an accepted booking.");
+                }
+                batchAccepted.computeIfAbsent(booking.getRoom(), r -> new AcceptedBookingIndex()).add(booking);
+            }
+        }
+
+        for (Booking booking : bookings) {
+            addBooking(booking);
+            booking.getRoom().addBooking(booking);
+            if (booking.getStatus() == BookingStatus.ACCEPTED) booking.getRoom().bookingAccepted(booking);
+        }
+    }
+
+    /*
+    Stores and applies a batch of reviews, then re-ranks each reviewed property once
+    instead of once per review. A batch with a duplicate review ID or a second review for a
+    booking is refused before anything is stored; DuplicateReviewReport lists such reviews.
+    Review IDs must follow creation order within each property, as PropertyReviews pages
+    newest first by ID: a review may not be dated before one of the same property with a
+    lower ID, stored or in the batch. A batch breaking that is refused as well.
+     */
+    public void loadReviews(Collection<Review> reviews) {
+        Set<Long> batchReviewIds = new HashSet<>();     //checked up front so a bad batch leaves nothing behind
+        Set<Long> batchBookingIds = new HashSet<>();
+        for (Review review : reviews) {
+            Objects.requireNonNull(review, "Review must not be null.");
+            if (reviewsByBookingId.containsKey(review.getBookingId()) || !batchBookingIds.add(review.getBookingId())) {
+                throw new IllegalStateException("Booking " + review.getBookingId() + " has already been reviewed.");
+            }
+            if (reviewsById.containsKey(review.getReviewId()) || !batchReviewIds.add(review.getReviewId())) {
+                throw new IllegalArgumentException("Duplicate reviewId: " + review.getReviewId());
+            }
+        }
+        checkCreationOrder(reviews);
+
+        Map<Long, Property> touched = new LinkedHashMap<>();
+        for (Review review : reviews) {
+            addReview(review);
+            review.getProperty().applyReview(review);
+            touched.put(review.getProperty().getPropertyId(), review.getProperty());
+        }
+        for (Property property : touched.values()) {
+            updatePropertyRanking(property);
+        }
+    }
+
+    private void checkCreationOrder(Collection<Review> reviews) {
+        List<Review> byId = new ArrayList<>(reviews);
+        byId.sort(Comparator.comparingLong(Review::getReviewId));
+        Map<Long, Review> newest = new HashMap<>();     //per property, the latest review seen in ID order
+        for (Review review : byId) {
+            long propertyId = review.getProperty().getPropertyId();
+            Review before = newest.get(propertyId);
+            if (before == null) {   //first of its property in the batch
+                PropertyReviews stored = reviewsByProperty.get(propertyId);
+                before = stored == null ? null : stored.newest();
+            }
+            if (before != null && (review.getReviewId() < before.getReviewId()
+                    || review.getCreatedAt().isBefore(before.getCreatedAt()))) {
+                throw new IllegalArgumentException("Review " + review.getReviewId() + " is out of creation order with review "
+                        + before.getReviewId() + " of property " + propertyId + ".");
+            }
+            newest.put(propertyId, review);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimingWheel<T> {
+
+    /*
+    Hierarchical timing wheel. Level 0 has 64 slots of one tick each, every level above
+    has 64 slots each 64 times wider. A timer goes into the lowest level whose current
+    rotation reaches its deadline, and drops a level each time its slot comes round,
+    so scheduling and cancelling are O(1) and advancing costs O(ticks + timers fired).
+    Timers past the top level's reach wait in the top level and are re-placed as it turns.
+     */
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final Timer<T>[][] slots;   //head of a doubly linked list per slot
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive.");
+        if (levels < 1 || levels * SLOT_BITS > 60) throw new IllegalArgumentException("Levels must be between 1 and 10.");
+
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = (Timer<T>[][]) new Timer<?>[levels][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /*
+    Schedules an item to come out of advanceTo once the clock reaches deadlineMillis.
+    Deadlines already due fire on the next tick.
+     */
+    public synchronized Timer<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;   //round up so nothing fires early
+        Timer<T> timer = new Timer<>(item, deadlineTick);
+        place(timer, currentTick + 1);
+        size++;
+        return timer;
+    }
+
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.level < 0) return false;    //already fired or cancelled
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /*
+    Moves the clock forward and returns the timers whose deadline has passed.
+     */
+    public synchronized List<Timer<T>> advanceTo(long nowMillis) {
+        List<Timer<T>> due = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+
+            // cascade higher levels first so timers can fall through several levels in one tick
+            for (int level = levels - 1; level >= 1; level--) {
+                long span = 1L << (SLOT_BITS * level);
+                if ((tick & (span - 1)) != 0) continue;
+
+                int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                Timer<T> t = detach(level, slot);
+                while (t != null) {
+                    Timer<T> next = t.next;
+                    t.prev = null;
+                    t.next = null;
+                    place(t, tick);
+                    t = next;
+                }
+            }
+
+            Timer<T> t = detach(0, (int) (tick & SLOT_MASK));
+            while (t != null) {
+                Timer<T> next = t.next;
+                t.level = -1;
+                t.prev = null;
+                t.next = null;
+                due.add(t);
+                size--;
+                t = next;
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    //list helpers
+
+    private void place(Timer<T> timer, long earliestTick) {
+        long tick = Math.max(timer.deadlineTick, earliestTick);
+
+        int level = 0;
+        while (level < levels - 1
+                && (tick >>> (SLOT_BITS * level)) - (currentTick >>> (SLOT_BITS * level)) >= SLOTS) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        timer.level = level;
+        timer.slot = slot;
+        timer.next = slots[level][slot];
+        if (timer.next != null) timer.next.prev = timer;
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) timer.prev.next = timer.next;
+        else slots[timer.level][timer.slot] = timer.next;
+        if (timer.next != null) timer.next.prev = timer.prev;
+
+        timer.level = -1;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    private Timer<T> detach(int level, int slot) {
+        Timer<T> head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    public static final class Timer<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level = -1;     //-1 once fired or cancelled
+        private int slot;
+
+        private Timer(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+}
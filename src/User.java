@@ -47,6 +47,10 @@ public abstract class User {
         this.status = AccountStatus.DEACTIVATED;
     }
 
+    public void reactivate() {
+        this.status = AccountStatus.ACTIVE;
+    }
+
     //override mthods
 
     @Override
@@ -0,0 +1,6 @@
+public enum UserSort {
+    ID,
+    NAME,
+    EMAIL
+}
+//preset sort orders for admin user listings